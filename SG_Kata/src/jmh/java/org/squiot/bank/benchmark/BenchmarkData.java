@@ -0,0 +1,49 @@
+package org.squiot.bank.benchmark;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.OperationDAO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+final class BenchmarkData {
+
+    static final LocalDateTime START = LocalDateTime.of(2022, 10, 28, 16, 8);
+
+    private BenchmarkData() {
+    }
+
+    static UUID[] accountIds(int accounts) {
+        final UUID[] accountIds = new UUID[accounts];
+        for (int i = 0; i < accounts; i++) {
+            accountIds[i] = UUID.randomUUID();
+        }
+        return accountIds;
+    }
+
+    // Misses are drawn from a bounded set of accounts absent from the setup, so writing benchmarks can't grow the store without bound.
+    static UUID nextAccountId(UUID[] accountIds, UUID[] missedAccountIds, double missRatio) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (missRatio > 0 && random.nextDouble() < missRatio)
+            return missedAccountIds[random.nextInt(missedAccountIds.length)];
+
+        return accountIds[random.nextInt(accountIds.length)];
+    }
+
+    static Amount balanceOf(List<Operation> operations) {
+        return operations.isEmpty() ? Amount.ZERO : operations.get(operations.size() - 1).balance();
+    }
+
+    static void fillHistory(OperationDAO operationDAO, UUID accountId, int historyLength) {
+        Amount balance = Amount.ZERO;
+        for (int i = 0; i < historyLength; i++) {
+            final Amount amount = Amount.ofMinorUnits(100 + i % 10_000);
+            balance = balance.add(amount);
+            operationDAO.create(new Operation(OperationType.DEPOSIT, accountId, amount, START.plusSeconds(i), balance));
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.squiot.bank.benchmark;
+
+import org.squiot.bank.writer.StatementWriter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+final class CountingStatementWriter implements StatementWriter {
+
+    // Shared by every benchmark thread of a -t run; the sum returned by the benchmarks keeps the writes from being eliminated.
+    private final LongAdder characters = new LongAdder();
+
+    @Override
+    public void write(List<String> statementDetails) {
+        long written = 0;
+        for (String statementDetail : statementDetails) {
+            written += statementDetail.length();
+        }
+        characters.add(written);
+    }
+
+    @Override
+    public void write(Stream<String> statementDetails) {
+        characters.add(statementDetails.mapToLong(String::length).sum());
+    }
+
+    long characters() {
+        return characters.sum();
+    }
+}
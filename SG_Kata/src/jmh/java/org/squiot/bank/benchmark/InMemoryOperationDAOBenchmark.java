@@ -0,0 +1,81 @@
+package org.squiot.bank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InMemoryOperationDAOBenchmark {
+
+    @Param({"100", "10000"})
+    private int historyLength;
+
+    @Param({"1", "1024"})
+    private int accounts;
+
+    @Param({"0.0", "0.5"})
+    private double missRatio;
+
+    private UUID[] accountIds;
+    private UUID[] missedAccountIds;
+    private InMemoryOperationDAO operationDAO;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        operationDAO = new InMemoryOperationDAO();
+        accountIds = BenchmarkData.accountIds(accounts);
+        missedAccountIds = BenchmarkData.accountIds(accounts);
+        for (UUID accountId : accountIds) {
+            BenchmarkData.fillHistory(operationDAO, accountId, historyLength);
+        }
+    }
+
+    @Benchmark
+    public Optional<Operation> findLastOperation() {
+        return operationDAO.findLastOperationByAccountId(nextAccountId());
+    }
+
+    @Benchmark
+    public int findAllSortedOperations() {
+        return operationDAO.findAllSortedOperationsByAccountId(nextAccountId()).size();
+    }
+
+    @Benchmark
+    public List<Operation> findOperationsOfOneDay() {
+        return operationDAO.findSortedOperationsByAccountIdBetween(nextAccountId(), BenchmarkData.START, BenchmarkData.START.plusDays(1));
+    }
+
+    @Benchmark
+    public Operation create() {
+        final UUID accountId = nextAccountId();
+        return operationDAO.create(new Operation(OperationType.DEPOSIT, accountId, Amount.ofMinorUnits(1), LocalDateTime.now(), Amount.ofMinorUnits(1)));
+    }
+
+    private UUID nextAccountId() {
+        return BenchmarkData.nextAccountId(accountIds, missedAccountIds, missRatio);
+    }
+}
@@ -0,0 +1,92 @@
+package org.squiot.bank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationService;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OperationServiceBenchmark {
+
+    private static final Amount AMOUNT = Amount.ofMinorUnits(1);
+
+    @Param({"0", "100", "10000"})
+    private int historyLength;
+
+    @Param({"1", "1024"})
+    private int accounts;
+
+    @Param({"0.0", "0.5"})
+    private double missRatio;
+
+    private UUID[] accountIds;
+    private UUID[] missedAccountIds;
+    private OperationService operationService;
+    private CountingStatementWriter statementWriter;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        final InMemoryOperationDAO operationDAO = new InMemoryOperationDAO();
+        statementWriter = new CountingStatementWriter();
+        operationService = new OperationService(operationDAO, Clock.systemUTC(), new TableStatementFormatter(), statementWriter);
+        accountIds = BenchmarkData.accountIds(accounts);
+        missedAccountIds = BenchmarkData.accountIds(accounts);
+        for (UUID accountId : accountIds) {
+            BenchmarkData.fillHistory(operationDAO, accountId, historyLength);
+        }
+    }
+
+    @Benchmark
+    public Operation deposit() throws NegativeAmountException {
+        return operationService.deposit(nextAccountId(), AMOUNT);
+    }
+
+    @Benchmark
+    public Operation withdrawal() throws NegativeAmountException {
+        try {
+            return operationService.withdrawal(nextAccountId(), AMOUNT);
+        } catch (InsufficientBalanceException e) {
+            return null;
+        }
+    }
+
+    @Benchmark
+    public long writeStatement() {
+        operationService.writeStatement(nextAccountId());
+        return statementWriter.characters();
+    }
+
+    @Benchmark
+    public long writeStreamedStatement() {
+        operationService.writeStreamedStatement(nextAccountId());
+        return statementWriter.characters();
+    }
+
+    private UUID nextAccountId() {
+        return BenchmarkData.nextAccountId(accountIds, missedAccountIds, missRatio);
+    }
+}
@@ -0,0 +1,60 @@
+package org.squiot.bank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StreamedAccountStatement;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TableStatementFormatterBenchmark {
+
+    @Param({"0", "100", "10000"})
+    private int historyLength;
+
+    private final TableStatementFormatter formatter = new TableStatementFormatter();
+    private UUID accountId;
+    private List<Operation> operations;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final InMemoryOperationDAO operationDAO = new InMemoryOperationDAO();
+        accountId = UUID.randomUUID();
+        BenchmarkData.fillHistory(operationDAO, accountId, historyLength);
+        operations = operationDAO.findAllSortedOperationsByAccountId(accountId);
+    }
+
+    @Benchmark
+    public List<String> formatStatement() {
+        return formatter.formatStatement(new AccountStatement(accountId, LocalDateTime.now(), operations, BenchmarkData.balanceOf(operations)));
+    }
+
+    @Benchmark
+    public void formatStreamedStatement(Blackhole blackhole) {
+        formatter.formatStatement(new StreamedAccountStatement(accountId, LocalDateTime.now(), operations.stream(), BenchmarkData.balanceOf(operations)))
+                .forEachOrdered(blackhole::consume);
+    }
+}
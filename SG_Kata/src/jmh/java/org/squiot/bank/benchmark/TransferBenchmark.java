@@ -0,0 +1,85 @@
+package org.squiot.bank.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.loadgen.ZipfDistribution;
+import org.squiot.bank.operation.OperationService;
+import org.squiot.bank.operation.Transfer;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.writer.ConsoleStatementWriter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TransferBenchmark {
+
+    private static final Amount AMOUNT = Amount.ofMinorUnits(1);
+    private static final Amount INITIAL_BALANCE = Amount.of(1_000_000_000);
+
+    @Param({"1024"})
+    private int accounts;
+
+    @Param({"0", "0.99", "1.5"})
+    private double skew;
+
+    private UUID[] accountIds;
+    private ZipfDistribution distribution;
+    private OperationService operationService;
+
+    @Setup(Level.Iteration)
+    public void setUp() throws NegativeAmountException {
+        operationService = new OperationService(new InMemoryOperationDAO(), Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+        accountIds = BenchmarkData.accountIds(accounts);
+        distribution = new ZipfDistribution(accounts, skew);
+        for (UUID accountId : accountIds) {
+            operationService.deposit(accountId, INITIAL_BALANCE);
+        }
+    }
+
+    @Benchmark
+    public Transfer transfer() throws InsufficientBalanceException, NegativeAmountException {
+        final int from = distribution.next();
+        int to = distribution.next();
+        if (to == from)
+            to = (from + 1) % accounts;
+        return operationService.transfer(accountIds[from], accountIds[to], AMOUNT);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        final int maxThreads = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .include(TransferBenchmark.class.getSimpleName())
+                    .threads(threads)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result("target/jmh-transfer-" + threads + "-threads.json")
+                    .build())
+                    .run();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package org.squiot.bank.loadgen;
+
+import org.squiot.bank.writer.StatementWriter;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+final class DiscardingStatementWriter implements StatementWriter {
+
+    private final LongAdder characters = new LongAdder();
+
+    @Override
+    public void write(List<String> statementDetails) {
+        long written = 0;
+        for (String statementDetail : statementDetails) {
+            written += statementDetail.length();
+        }
+        characters.add(written);
+    }
+
+    @Override
+    public void write(Stream<String> statementDetails) {
+        characters.add(statementDetails.mapToLong(String::length).sum());
+    }
+
+    long characters() {
+        return characters.sum();
+    }
+}
@@ -0,0 +1,235 @@
+package org.squiot.bank.loadgen;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.metrics.LatencyHistogram;
+import org.squiot.bank.metrics.LatencySnapshot;
+import org.squiot.bank.operation.OperationService;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.operation.data.journal.Durability;
+import org.squiot.bank.operation.data.journal.JournalOperationDAO;
+import org.squiot.bank.operation.data.offheap.OffHeapOperationDAO;
+import org.squiot.bank.writer.ConsoleStatementWriter;
+import org.squiot.bank.writer.StatementLinesCache;
+import org.squiot.bank.writer.StatementWriter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+public class LoadGenerator {
+
+    private static final Amount INITIAL_BALANCE = Amount.of(1_000);
+    private static final long MAX_AMOUNT_MINOR_UNITS = 10_000;
+    private static final long MAX_CACHED_STATEMENT_LINES = 1_000_000;
+
+    private final LoadProfile profile;
+    private final OperationService operationService;
+    private final StatementLinesCache statementLinesCache = new StatementLinesCache(MAX_CACHED_STATEMENT_LINES);
+    private final PrintStream output;
+    private final UUID[] accountIds;
+    private final ZipfDistribution distribution;
+    private final Load deposits = new Load("deposit");
+    private final Load withdrawals = new Load("withdrawal");
+    private final Load statements = new Load("statement");
+    private final Load[] loads = {deposits, withdrawals, statements};
+
+    private final AtomicReference<RuntimeException> firstFailure = new AtomicReference<>();
+
+    private volatile boolean running;
+
+    public LoadGenerator(LoadProfile profile, OperationDAO operationDAO, StatementWriter statementWriter, PrintStream output) {
+        this.profile = profile;
+        this.operationService = new OperationService(operationDAO, Clock.systemUTC(), new TableStatementFormatter(), statementWriter);
+        this.output = output;
+        this.accountIds = new UUID[profile.accounts()];
+        this.distribution = new ZipfDistribution(profile.accounts(), profile.skew());
+        for (int index = 0; index < accountIds.length; index++) {
+            accountIds[index] = UUID.randomUUID();
+        }
+    }
+
+    public void run() throws NegativeAmountException, InterruptedException {
+        for (UUID accountId : accountIds) {
+            operationService.deposit(accountId, INITIAL_BALANCE);
+        }
+
+        final RuntimeProbe probe = new RuntimeProbe();
+        final Thread[] workers = new Thread[profile.threads()];
+        final long[] workerIds = new long[workers.length];
+        running = true;
+        for (int index = 0; index < workers.length; index++) {
+            workers[index] = new Thread(this::generateLoad, "load-generator-" + index);
+            workerIds[index] = workers[index].getId();
+        }
+
+        output.printf("%d accounts, skew %.2f, %.0f%% statements, %.0f%% withdrawals, %d threads, %s%n",
+                profile.accounts(), profile.skew(), profile.statementRatio() * 100, profile.withdrawalRatio() * 100,
+                profile.threads(), profile.duration());
+        output.printf("%8s %12s %-12s %10s %10s %10s %10s %6s %8s %10s %10s%n",
+                "elapsed", "ops/s", "operation", "count", "p50 us", "p99 us", "p999 us", "gc", "gc ms", "alloc MB/s", "heap MB");
+
+        final RuntimeProbe.Sample start = probe.sample(workerIds);
+        for (Thread worker : workers) {
+            worker.start();
+        }
+
+        final long endNanos = start.nanos() + profile.duration().toNanos();
+        RuntimeProbe.Sample previous = start;
+        try {
+            while (previous.nanos() < endNanos) {
+                TimeUnit.NANOSECONDS.sleep(Math.min(profile.reportInterval().toNanos(), endNanos - previous.nanos()));
+                final RuntimeProbe.Sample current = probe.sample(workerIds);
+                report(start, previous, current, false);
+                previous = current;
+            }
+        } finally {
+            running = false;
+            for (Thread worker : workers) {
+                worker.join();
+            }
+        }
+
+        report(start, start, previous, true);
+    }
+
+    private void generateLoad() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final double statementRatio = profile.statementRatio();
+        final double withdrawalRatio = statementRatio + profile.withdrawalRatio();
+
+        while (running) {
+            final UUID accountId = accountIds[distribution.next()];
+            final double draw = random.nextDouble();
+            final Load load = draw < statementRatio ? statements : draw < withdrawalRatio ? withdrawals : deposits;
+            final Amount amount = Amount.ofMinorUnits(1 + random.nextLong(MAX_AMOUNT_MINOR_UNITS));
+
+            final long startNanos = System.nanoTime();
+            try {
+                if (load == deposits)
+                    operationService.deposit(accountId, amount);
+                else if (load == withdrawals)
+                    operationService.withdrawal(accountId, amount);
+                else
+                    operationService.writeStatement(accountId, statementLinesCache);
+            } catch (InsufficientBalanceException | NegativeAmountException e) {
+                load.rejections.increment();
+            } catch (RuntimeException e) {
+                load.failures.increment();
+                firstFailure.compareAndSet(null, e);
+            }
+            load.record(System.nanoTime() - startNanos);
+        }
+    }
+
+    private void report(RuntimeProbe.Sample start, RuntimeProbe.Sample previous, RuntimeProbe.Sample current, boolean total) {
+        final double seconds = (current.nanos() - previous.nanos()) / 1_000_000_000d;
+        final LatencySnapshot[] snapshots = new LatencySnapshot[loads.length];
+        long operations = 0;
+        for (int index = 0; index < loads.length; index++) {
+            snapshots[index] = total ? loads[index].total.snapshot() : loads[index].interval();
+            operations += snapshots[index].count();
+        }
+
+        final String elapsed = total ? "total" : String.format("%.0fs", (current.nanos() - start.nanos()) / 1_000_000_000d);
+        final String allocationRate = current.allocatedBytes() < 0 ? "n/a"
+                : String.format("%.1f", (current.allocatedBytes() - previous.allocatedBytes()) / seconds / (1 << 20));
+        for (int index = 0; index < loads.length; index++) {
+            final LatencySnapshot snapshot = snapshots[index];
+            if (index == 0) {
+                output.printf("%8s %12.0f %-12s %10d %10.1f %10.1f %10.1f %6d %8d %10s %10d%n",
+                        elapsed, operations / seconds, loads[index].name, snapshot.count(),
+                        snapshot.p50Nanos() / 1_000d, snapshot.p99Nanos() / 1_000d, snapshot.p999Nanos() / 1_000d,
+                        current.collections() - previous.collections(), current.collectionMillis() - previous.collectionMillis(),
+                        allocationRate, current.heapUsedBytes() >> 20);
+            } else {
+                output.printf("%8s %12s %-12s %10d %10.1f %10.1f %10.1f%n",
+                        "", "", loads[index].name, snapshot.count(),
+                        snapshot.p50Nanos() / 1_000d, snapshot.p99Nanos() / 1_000d, snapshot.p999Nanos() / 1_000d);
+            }
+        }
+
+        if (total) {
+            output.printf("rejected: %d deposits, %d withdrawals, %d statements%n",
+                    deposits.rejections.sum(), withdrawals.rejections.sum(), statements.rejections.sum());
+            output.printf("failed: %d deposits, %d withdrawals, %d statements%n",
+                    deposits.failures.sum(), withdrawals.failures.sum(), statements.failures.sum());
+            final RuntimeException failure = firstFailure.get();
+            if (failure != null) {
+                output.println("first failure:");
+                failure.printStackTrace(output);
+            }
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        final LoadProfile profile = LoadProfile.parse(args);
+        final OperationDAO operationDAO = operationDAOOf(profile.store());
+        final StatementWriter statementWriter = switch (profile.writer()) {
+            case "discard" -> new DiscardingStatementWriter();
+            case "console" -> new ConsoleStatementWriter();
+            default -> throw new IllegalArgumentException("Unknown statement writer " + profile.writer() + ".");
+        };
+
+        final LoadGenerator loadGenerator = new LoadGenerator(profile, operationDAO, statementWriter, System.out);
+        try {
+            loadGenerator.run();
+        } finally {
+            if (operationDAO instanceof Closeable closeable)
+                closeable.close();
+        }
+        if (loadGenerator.failures() > 0)
+            throw new IllegalStateException("Load generation hit " + loadGenerator.failures() + " unexpected failures.", loadGenerator.firstFailure.get());
+    }
+
+    public long failures() {
+        return deposits.failures.sum() + withdrawals.failures.sum() + statements.failures.sum();
+    }
+
+    private static OperationDAO operationDAOOf(String store) throws IOException {
+        return switch (store) {
+            case "memory" -> new InMemoryOperationDAO();
+            case "offheap" -> new OffHeapOperationDAO();
+            case "journal" -> {
+                final Path journalFile = Files.createTempFile("load-generator", ".journal");
+                journalFile.toFile().deleteOnExit();
+                journalFile.resolveSibling(journalFile.getFileName() + ".snapshot").toFile().deleteOnExit();
+                yield new JournalOperationDAO(journalFile, Durability.BUFFERED);
+            }
+            default -> throw new IllegalArgumentException("Unknown operation store " + store + ".");
+        };
+    }
+
+    private static final class Load {
+
+        private final String name;
+        private final LatencyHistogram total = new LatencyHistogram();
+        private final LatencyHistogram interval = new LatencyHistogram();
+        private final LongAdder rejections = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+
+        private Load(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos) {
+            total.record(nanos);
+            interval.record(nanos);
+        }
+
+        private LatencySnapshot interval() {
+            return interval.snapshotAndReset();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.squiot.bank.loadgen;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+public record LoadProfile(int accounts, double skew, double statementRatio, double withdrawalRatio, int threads,
+                          Duration duration, Duration reportInterval, String store, String writer) {
+
+    public LoadProfile {
+        if (accounts <= 0 || threads <= 0)
+            throw new IllegalArgumentException("Accounts and threads counts should be positive.");
+        if (statementRatio < 0 || withdrawalRatio < 0 || statementRatio + withdrawalRatio > 1)
+            throw new IllegalArgumentException("Statement and withdrawal ratios should be positive and add up to at most 1.");
+        if (duration.isNegative() || duration.isZero() || reportInterval.isNegative() || reportInterval.isZero())
+            throw new IllegalArgumentException("Duration and report interval should be positive.");
+    }
+
+    public static LoadProfile parse(String... args) {
+        final Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            final int separator = arg.indexOf('=');
+            if (separator <= 0)
+                throw new IllegalArgumentException("Option " + arg + " should be written as name=value.");
+            options.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+
+        return new LoadProfile(
+                Integer.parseInt(options.getOrDefault("accounts", "10000")),
+                Double.parseDouble(options.getOrDefault("skew", "0.99")),
+                Double.parseDouble(options.getOrDefault("statementRatio", "0.05")),
+                Double.parseDouble(options.getOrDefault("withdrawalRatio", "0.4")),
+                Integer.parseInt(options.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors()))),
+                Duration.parse(options.getOrDefault("duration", "PT1M")),
+                Duration.parse(options.getOrDefault("reportInterval", "PT5S")),
+                options.getOrDefault("store", "memory"),
+                options.getOrDefault("writer", "discard")
+        );
+    }
+}
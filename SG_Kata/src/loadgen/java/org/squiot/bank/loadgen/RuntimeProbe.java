@@ -0,0 +1,45 @@
+package org.squiot.bank.loadgen;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+final class RuntimeProbe {
+
+    private final List<GarbageCollectorMXBean> garbageCollectors = ManagementFactory.getGarbageCollectorMXBeans();
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final com.sun.management.ThreadMXBean threads;
+
+    RuntimeProbe() {
+        final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        if (threadMXBean instanceof com.sun.management.ThreadMXBean allocationMXBean && allocationMXBean.isThreadAllocatedMemorySupported()) {
+            allocationMXBean.setThreadAllocatedMemoryEnabled(true);
+            this.threads = allocationMXBean;
+        } else {
+            this.threads = null;
+        }
+    }
+
+    Sample sample(long[] threadIds) {
+        long collections = 0;
+        long collectionMillis = 0;
+        for (GarbageCollectorMXBean garbageCollector : garbageCollectors) {
+            collections += Math.max(0, garbageCollector.getCollectionCount());
+            collectionMillis += Math.max(0, garbageCollector.getCollectionTime());
+        }
+
+        long allocatedBytes = -1;
+        if (threads != null) {
+            allocatedBytes = 0;
+            for (long threadAllocatedBytes : threads.getThreadAllocatedBytes(threadIds)) {
+                allocatedBytes += Math.max(0, threadAllocatedBytes);
+            }
+        }
+
+        return new Sample(System.nanoTime(), collections, collectionMillis, allocatedBytes, memory.getHeapMemoryUsage().getUsed());
+    }
+
+    record Sample(long nanos, long collections, long collectionMillis, long allocatedBytes, long heapUsedBytes) { }
+}
@@ -0,0 +1,26 @@
+package org.squiot.bank.loadgen;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+
+public final class ZipfDistribution {
+
+    private final double[] cumulativeProbabilities;
+
+    public ZipfDistribution(int elements, double exponent) {
+        cumulativeProbabilities = new double[elements];
+        double total = 0;
+        for (int rank = 1; rank <= elements; rank++) {
+            total += 1 / Math.pow(rank, exponent);
+            cumulativeProbabilities[rank - 1] = total;
+        }
+        for (int index = 0; index < elements; index++) {
+            cumulativeProbabilities[index] /= total;
+        }
+    }
+
+    public int next() {
+        final int index = Arrays.binarySearch(cumulativeProbabilities, ThreadLocalRandom.current().nextDouble());
+        return Math.min(index >= 0 ? index : -index - 1, cumulativeProbabilities.length - 1);
+    }
+}
@@ -1,11 +1,15 @@
 package org.squiot.bank.account;
 
+import org.squiot.bank.amount.Amount;
 import org.squiot.bank.operation.Operation;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
-public record AccountStatement(UUID accountId, LocalDateTime date, List<Operation> operations, BigDecimal balance) { }
+public record AccountStatement(UUID accountId, LocalDateTime date, List<Operation> operations, Amount balance, StatementPeriod period) {
 
+    public AccountStatement(UUID accountId, LocalDateTime date, List<Operation> operations, Amount balance) {
+        this(accountId, date, operations, balance, null);
+    }
+}
@@ -0,0 +1,44 @@
+package org.squiot.bank.account;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+public record PeriodRollup(LocalDate start, long operationsCount, Amount deposits, Amount withdrawals, Amount openingBalance, Amount closingBalance) {
+
+    public static List<PeriodRollup> rollUp(Iterable<Operation> operations, RollupPeriod period) {
+        final List<PeriodRollup> rollups = new ArrayList<>();
+        for (Operation operation : operations) {
+            accumulate(rollups, period, operation);
+        }
+        return rollups;
+    }
+
+    public static void accumulate(List<PeriodRollup> rollups, RollupPeriod period, Operation operation) {
+        final LocalDate start = period.startOf(operation.date());
+        final int lastIndex = rollups.size() - 1;
+
+        if (lastIndex >= 0 && !rollups.get(lastIndex).start().isBefore(start))
+            rollups.set(lastIndex, rollups.get(lastIndex).with(operation));
+        else
+            rollups.add(first(start, operation));
+    }
+
+    public static PeriodRollup first(LocalDate start, Operation operation) {
+        final Amount openingBalance = switch (operation.operationType()) {
+            case DEPOSIT, TRANSFER_IN -> operation.balance().subtract(operation.amount());
+            case WITHDRAWAL, TRANSFER_OUT -> operation.balance().add(operation.amount());
+        };
+        return new PeriodRollup(start, 0, Amount.ZERO, Amount.ZERO, openingBalance, openingBalance).with(operation);
+    }
+
+    public PeriodRollup with(Operation operation) {
+        return switch (operation.operationType()) {
+            case DEPOSIT, TRANSFER_IN -> new PeriodRollup(start, operationsCount + 1, deposits.add(operation.amount()), withdrawals, openingBalance, operation.balance());
+            case WITHDRAWAL, TRANSFER_OUT -> new PeriodRollup(start, operationsCount + 1, deposits, withdrawals.add(operation.amount()), openingBalance, operation.balance());
+        };
+    }
+}
@@ -0,0 +1,23 @@
+package org.squiot.bank.account;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+public enum RollupPeriod {
+    DAY,
+    MONTH;
+
+    public LocalDate startOf(LocalDateTime date) {
+        return switch (this) {
+            case DAY -> date.toLocalDate();
+            case MONTH -> date.toLocalDate().withDayOfMonth(1);
+        };
+    }
+
+    public String labelOf(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.toString();
+            case MONTH -> start.toString().substring(0, 7);
+        };
+    }
+}
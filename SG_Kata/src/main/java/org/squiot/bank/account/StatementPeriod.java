@@ -0,0 +1,7 @@
+package org.squiot.bank.account;
+
+import org.squiot.bank.amount.Amount;
+
+import java.time.LocalDateTime;
+
+public record StatementPeriod(LocalDateTime from, LocalDateTime to, Amount openingBalance) { }
@@ -0,0 +1,15 @@
+package org.squiot.bank.account;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public record StreamedAccountStatement(UUID accountId, LocalDateTime date, Stream<Operation> operations, Amount balance) {
+
+    public AccountStatement collect() {
+        return new AccountStatement(accountId, date, operations.toList(), balance);
+    }
+}
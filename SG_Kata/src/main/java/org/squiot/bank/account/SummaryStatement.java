@@ -0,0 +1,9 @@
+package org.squiot.bank.account;
+
+import org.squiot.bank.amount.Amount;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public record SummaryStatement(UUID accountId, LocalDateTime date, RollupPeriod period, List<PeriodRollup> rollups, Amount balance) { }
@@ -0,0 +1,70 @@
+package org.squiot.bank.amount;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+public record Amount(long minorUnits) implements Comparable<Amount> {
+
+    public static final int SCALE = 2;
+    public static final Amount ZERO = new Amount(0);
+
+    private static final long MINOR_UNITS_PER_UNIT = 100;
+
+    public static Amount of(long units) {
+        return new Amount(Math.multiplyExact(units, MINOR_UNITS_PER_UNIT));
+    }
+
+    public static Amount ofMinorUnits(long minorUnits) {
+        return minorUnits == 0 ? ZERO : new Amount(minorUnits);
+    }
+
+    public static Amount of(BigDecimal value) {
+        return ofMinorUnits(value.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public Amount add(Amount other) {
+        return ofMinorUnits(Math.addExact(minorUnits, other.minorUnits));
+    }
+
+    public Amount subtract(Amount other) {
+        return ofMinorUnits(Math.subtractExact(minorUnits, other.minorUnits));
+    }
+
+    public boolean isNegative() {
+        return minorUnits < 0;
+    }
+
+    public boolean isLessThan(Amount other) {
+        return minorUnits < other.minorUnits;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    @Override
+    public int compareTo(Amount other) {
+        return Long.compare(minorUnits, other.minorUnits);
+    }
+
+    public StringBuilder appendTo(StringBuilder builder) {
+        long units = minorUnits / MINOR_UNITS_PER_UNIT;
+        long cents = minorUnits % MINOR_UNITS_PER_UNIT;
+
+        if (minorUnits < 0) {
+            builder.append('-');
+            units = -units;
+            cents = -cents;
+        }
+
+        builder.append(units).append('.');
+        if (cents < 10)
+            builder.append('0');
+        return builder.append(cents);
+    }
+
+    @Override
+    public String toString() {
+        return appendTo(new StringBuilder(24)).toString();
+    }
+}
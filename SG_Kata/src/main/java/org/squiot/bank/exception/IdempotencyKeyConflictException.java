@@ -0,0 +1,8 @@
+package org.squiot.bank.exception;
+
+public class IdempotencyKeyConflictException extends Exception {
+
+    public IdempotencyKeyConflictException(String message){
+        super(message);
+    }
+}
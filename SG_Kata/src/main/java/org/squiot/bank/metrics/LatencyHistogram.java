@@ -0,0 +1,89 @@
+package org.squiot.bank.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        counts.getAndIncrement(indexOf(Math.max(0, nanos)));
+    }
+
+    public LatencySnapshot snapshot() {
+        final long[] snapshot = new long[BUCKETS];
+        for (int index = 0; index < BUCKETS; index++) {
+            snapshot[index] = counts.get(index);
+        }
+        return snapshotOf(snapshot);
+    }
+
+    // Drains each bucket atomically: a sample recorded concurrently lands either in this snapshot or in the next one, never in neither.
+    public LatencySnapshot snapshotAndReset() {
+        final long[] snapshot = new long[BUCKETS];
+        for (int index = 0; index < BUCKETS; index++) {
+            snapshot[index] = counts.getAndSet(index, 0);
+        }
+        return snapshotOf(snapshot);
+    }
+
+    public void reset() {
+        for (int index = 0; index < BUCKETS; index++) {
+            counts.set(index, 0);
+        }
+    }
+
+    static int indexOf(long nanos) {
+        if (nanos < SUB_BUCKETS)
+            return (int) nanos;
+
+        final int exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long highestValueOf(int index) {
+        if (index < SUB_BUCKETS)
+            return index;
+
+        final int shift = index / SUB_BUCKETS - 1;
+        final long lowestValue = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << shift;
+        return lowestValue + (1L << shift) - 1;
+    }
+
+    private static LatencySnapshot snapshotOf(long[] snapshot) {
+        long count = 0;
+        int highestIndex = 0;
+        for (int index = 0; index < snapshot.length; index++) {
+            count += snapshot[index];
+            if (snapshot[index] != 0)
+                highestIndex = index;
+        }
+
+        return new LatencySnapshot(
+                count,
+                percentile(snapshot, count, 0.50),
+                percentile(snapshot, count, 0.99),
+                percentile(snapshot, count, 0.999),
+                count == 0 ? 0 : highestValueOf(highestIndex)
+        );
+    }
+
+    private static long percentile(long[] snapshot, long count, double percentile) {
+        if (count == 0)
+            return 0;
+
+        final long rank = Math.max(1, (long) Math.ceil(percentile * count));
+        long cumulated = 0;
+        for (int index = 0; index < snapshot.length; index++) {
+            cumulated += snapshot[index];
+            if (cumulated >= rank)
+                return highestValueOf(index);
+        }
+        return highestValueOf(snapshot.length - 1);
+    }
+}
@@ -0,0 +1,4 @@
+package org.squiot.bank.metrics;
+
+public record LatencySnapshot(long count, long p50Nanos, long p99Nanos, long p999Nanos, long maxNanos) {
+}
@@ -0,0 +1,77 @@
+package org.squiot.bank.metrics;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class LatencyTimer implements LatencyTimerMXBean {
+
+    private final String name;
+    private final LatencyHistogram histogram = new LatencyHistogram();
+    private final ConcurrentMap<Class<? extends Throwable>, LongAdder> rejections = new ConcurrentHashMap<>();
+
+    LatencyTimer(String name) {
+        this.name = name;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public void recordSince(long startNanos) {
+        histogram.record(System.nanoTime() - startNanos);
+    }
+
+    public <T> Stream<T> recordOnClose(Stream<T> stream, long startNanos) {
+        return stream.onClose(() -> recordSince(startNanos));
+    }
+
+    public void recordRejection(Throwable rejection) {
+        rejections.computeIfAbsent(rejection.getClass(), type -> new LongAdder()).increment();
+    }
+
+    public LatencySnapshot snapshot() {
+        return histogram.snapshot();
+    }
+
+    @Override
+    public long getCount() {
+        return snapshot().count();
+    }
+
+    @Override
+    public long getP50Nanos() {
+        return snapshot().p50Nanos();
+    }
+
+    @Override
+    public long getP99Nanos() {
+        return snapshot().p99Nanos();
+    }
+
+    @Override
+    public long getP999Nanos() {
+        return snapshot().p999Nanos();
+    }
+
+    @Override
+    public long getMaxNanos() {
+        return snapshot().maxNanos();
+    }
+
+    @Override
+    public Map<String, Long> getRejections() {
+        final Map<String, Long> rejectionCounts = new TreeMap<>();
+        rejections.forEach((type, count) -> rejectionCounts.put(type.getSimpleName(), count.sum()));
+        return rejectionCounts;
+    }
+
+    @Override
+    public void reset() {
+        histogram.reset();
+        rejections.clear();
+    }
+}
@@ -0,0 +1,13 @@
+package org.squiot.bank.metrics;
+
+import java.util.Map;
+
+public interface LatencyTimerMXBean {
+    long getCount();
+    long getP50Nanos();
+    long getP99Nanos();
+    long getP999Nanos();
+    long getMaxNanos();
+    Map<String, Long> getRejections();
+    void reset();
+}
@@ -0,0 +1,114 @@
+package org.squiot.bank.metrics;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.PrintStream;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class MetricsRegistry implements Closeable {
+
+    private static final System.Logger LOGGER = System.getLogger(MetricsRegistry.class.getName());
+
+    private final ConcurrentSkipListMap<String, LatencyTimer> timers = new ConcurrentSkipListMap<>();
+
+    private MBeanServer mBeanServer;
+    private String domain;
+    private ScheduledExecutorService dumpScheduler;
+
+    public LatencyTimer timer(String name) {
+        final LatencyTimer existing = timers.get(name);
+        if (existing != null)
+            return existing;
+
+        synchronized (this) {
+            LatencyTimer timer = timers.get(name);
+            if (timer == null) {
+                timer = new LatencyTimer(name);
+                timers.put(name, timer);
+                if (mBeanServer != null)
+                    register(timer);
+            }
+            return timer;
+        }
+    }
+
+    public Collection<LatencyTimer> timers() {
+        return Collections.unmodifiableCollection(timers.values());
+    }
+
+    public synchronized void registerMBeans(MBeanServer mBeanServer, String domain) throws JMException {
+        if (this.mBeanServer != null)
+            throw new IllegalStateException("Metrics are already registered.");
+
+        this.mBeanServer = mBeanServer;
+        this.domain = domain;
+        for (LatencyTimer timer : timers.values()) {
+            mBeanServer.registerMBean(timer, objectNameOf(timer));
+        }
+    }
+
+    public String dump() {
+        final StringBuilder dump = new StringBuilder();
+        for (Map.Entry<String, LatencyTimer> entry : timers.entrySet()) {
+            final LatencySnapshot snapshot = entry.getValue().snapshot();
+            dump.append(String.format("%-48s count=%d p50=%dns p99=%dns p999=%dns max=%dns",
+                    entry.getKey(), snapshot.count(), snapshot.p50Nanos(), snapshot.p99Nanos(), snapshot.p999Nanos(), snapshot.maxNanos()));
+
+            final Map<String, Long> rejections = entry.getValue().getRejections();
+            if (!rejections.isEmpty())
+                dump.append(" rejections=").append(rejections);
+            dump.append(System.lineSeparator());
+        }
+        return dump.toString();
+    }
+
+    public synchronized void scheduleDump(Duration interval, PrintStream output) {
+        if (dumpScheduler != null)
+            throw new IllegalStateException("Metrics dump is already scheduled.");
+
+        dumpScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumpScheduler.scheduleAtFixedRate(() -> output.print(dump()), interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (dumpScheduler != null)
+            dumpScheduler.shutdown();
+
+        if (mBeanServer != null) {
+            for (LatencyTimer timer : timers.values()) {
+                try {
+                    mBeanServer.unregisterMBean(objectNameOf(timer));
+                } catch (JMException e) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Metrics MBean " + timer.name() + " couldn't be unregistered.", e);
+                }
+            }
+            mBeanServer = null;
+        }
+    }
+
+    private void register(LatencyTimer timer) {
+        try {
+            mBeanServer.registerMBean(timer, objectNameOf(timer));
+        } catch (JMException e) {
+            LOGGER.log(System.Logger.Level.WARNING, "Metrics MBean " + timer.name() + " couldn't be registered.", e);
+        }
+    }
+
+    private ObjectName objectNameOf(LatencyTimer timer) throws JMException {
+        return new ObjectName(domain + ":type=Latency,name=" + ObjectName.quote(timer.name()));
+    }
+}
@@ -0,0 +1,72 @@
+package org.squiot.bank.operation;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class AccountLocks {
+
+    public static final int DEFAULT_STRIPES = 1024;
+
+    private final Lock[] stripes;
+    private final int mask;
+
+    public AccountLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    public AccountLocks(int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1)
+            throw new IllegalArgumentException("Stripes count should be a positive power of two.");
+
+        this.stripes = new Lock[stripes];
+        this.mask = stripes - 1;
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private AccountLocks(Lock lock) {
+        this.stripes = new Lock[]{lock};
+        this.mask = 0;
+    }
+
+    public static AccountLocks singleWriter() {
+        return new AccountLocks(SingleWriterLock.INSTANCE);
+    }
+
+    public Lock lockFor(UUID accountId) {
+        return stripes[stripeIndex(accountId)];
+    }
+
+    public List<Lock> locksFor(Collection<UUID> accountIds) {
+        final BitSet usedStripes = new BitSet(stripes.length);
+        for (UUID accountId : accountIds) {
+            usedStripes.set(stripeIndex(accountId));
+        }
+
+        final List<Lock> locks = new ArrayList<>(usedStripes.cardinality());
+        for (int index = usedStripes.nextSetBit(0); index >= 0; index = usedStripes.nextSetBit(index + 1)) {
+            locks.add(stripes[index]);
+        }
+        return locks;
+    }
+
+    public List<Lock> locksFor(UUID firstAccountId, UUID secondAccountId) {
+        final int firstStripe = stripeIndex(firstAccountId);
+        final int secondStripe = stripeIndex(secondAccountId);
+
+        if (firstStripe == secondStripe)
+            return List.of(stripes[firstStripe]);
+        return List.of(stripes[Math.min(firstStripe, secondStripe)], stripes[Math.max(firstStripe, secondStripe)]);
+    }
+
+    int stripeIndex(UUID accountId) {
+        final int hash = accountId.hashCode();
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
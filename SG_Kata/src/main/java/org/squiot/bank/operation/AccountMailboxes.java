@@ -0,0 +1,143 @@
+package org.squiot.bank.operation;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+final class AccountMailboxes {
+
+    private static final int TASKS_PER_TURN = 64;
+
+    private final ConcurrentMap<UUID, Mailbox> mailboxes = new ConcurrentHashMap<>();
+    private final Executor executor;
+    private final int capacity;
+
+    AccountMailboxes(Executor executor, int capacity) {
+        if (capacity <= 0)
+            throw new IllegalArgumentException("Mailbox capacity should be positive.");
+
+        this.executor = executor;
+        this.capacity = capacity;
+    }
+
+    <T> CompletableFuture<T> submit(UUID accountId, Callable<T> task) {
+        final Task<T> mailboxTask = new Task<>(task, new CompletableFuture<>());
+
+        while (true) {
+            final Mailbox mailbox = mailboxes.computeIfAbsent(accountId, Mailbox::new);
+            final Boolean accepted = mailbox.offer(mailboxTask);
+            if (accepted == null)
+                continue;
+            if (!accepted)
+                mailboxTask.fail(new RejectedExecutionException("Mailbox of account " + accountId + " is full."));
+            return mailboxTask.result();
+        }
+    }
+
+    int pendingTasks(UUID accountId) {
+        final Mailbox mailbox = mailboxes.get(accountId);
+        return mailbox == null ? 0 : mailbox.size();
+    }
+
+    int activeMailboxes() {
+        return mailboxes.size();
+    }
+
+    private record Task<T>(Callable<T> callable, CompletableFuture<T> result) {
+
+        void run() {
+            try {
+                result.complete(callable.call());
+            } catch (Exception e) {
+                result.completeExceptionally(e);
+            } catch (Error e) {
+                result.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        void fail(Exception failure) {
+            result.completeExceptionally(failure);
+        }
+    }
+
+    private final class Mailbox implements Runnable {
+
+        private final UUID accountId;
+        private final Queue<Task<?>> tasks = new ArrayDeque<>();
+        private boolean scheduled;
+        private boolean retired;
+
+        private Mailbox(UUID accountId) {
+            this.accountId = accountId;
+        }
+
+        // null when the mailbox was retired in the meantime and a fresh one must be taken from the map.
+        private Boolean offer(Task<?> task) {
+            synchronized (this) {
+                if (retired)
+                    return null;
+                if (tasks.size() >= capacity)
+                    return false;
+
+                tasks.add(task);
+                if (scheduled)
+                    return true;
+                scheduled = true;
+            }
+            schedule();
+            return true;
+        }
+
+        private synchronized int size() {
+            return tasks.size();
+        }
+
+        // The next turn is scheduled in a finally so an Error thrown by a task doesn't leave the mailbox scheduled but never run again.
+        @Override
+        public void run() {
+            boolean drained = false;
+            try {
+                for (int executed = 0; executed < TASKS_PER_TURN; executed++) {
+                    final Task<?> task;
+                    synchronized (this) {
+                        task = tasks.poll();
+                        if (task == null) {
+                            scheduled = false;
+                            retired = true;
+                            mailboxes.remove(accountId, this);
+                            drained = true;
+                            return;
+                        }
+                    }
+                    task.run();
+                }
+            } finally {
+                if (!drained)
+                    schedule();
+            }
+        }
+
+        private void schedule() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                final Queue<Task<?>> rejectedTasks;
+                synchronized (this) {
+                    rejectedTasks = new ArrayDeque<>(tasks);
+                    tasks.clear();
+                    scheduled = false;
+                    retired = true;
+                    mailboxes.remove(accountId, this);
+                }
+                rejectedTasks.forEach(task -> task.fail(e));
+            }
+        }
+    }
+}
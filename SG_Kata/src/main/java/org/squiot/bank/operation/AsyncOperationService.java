@@ -0,0 +1,36 @@
+package org.squiot.bank.operation;
+
+import org.squiot.bank.amount.Amount;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+public class AsyncOperationService {
+
+    public static final int DEFAULT_MAILBOX_CAPACITY = 1024;
+
+    private final OperationService operationService;
+    private final AccountMailboxes mailboxes;
+
+    public AsyncOperationService(OperationService operationService, Executor executor) {
+        this(operationService, executor, DEFAULT_MAILBOX_CAPACITY);
+    }
+
+    public AsyncOperationService(OperationService operationService, Executor executor, int mailboxCapacity) {
+        this.operationService = operationService;
+        this.mailboxes = new AccountMailboxes(executor, mailboxCapacity);
+    }
+
+    public CompletableFuture<Operation> deposit(UUID accountId, Amount amount) {
+        return mailboxes.submit(accountId, () -> operationService.deposit(accountId, amount));
+    }
+
+    public CompletableFuture<Operation> withdrawal(UUID accountId, Amount amount) {
+        return mailboxes.submit(accountId, () -> operationService.withdrawal(accountId, amount));
+    }
+
+    public int pendingOperations(UUID accountId) {
+        return mailboxes.pendingTasks(accountId);
+    }
+}
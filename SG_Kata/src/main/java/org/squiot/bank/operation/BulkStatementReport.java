@@ -0,0 +1,16 @@
+package org.squiot.bank.operation;
+
+import java.time.Duration;
+
+public record BulkStatementReport(long total, long written, long failed, Duration elapsed) {
+
+    public long completed() {
+        return written + failed;
+    }
+
+    public double statementsPerSecond() {
+        if (elapsed.isZero())
+            return 0;
+        return completed() * 1_000_000_000d / elapsed.toNanos();
+    }
+}
@@ -0,0 +1,156 @@
+package org.squiot.bank.operation;
+
+import org.squiot.bank.writer.StatementWriter;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+public class BulkStatementService {
+
+    private static final int ACCOUNTS_PER_TASK = 64;
+
+    private static final System.Logger LOGGER = System.getLogger(BulkStatementService.class.getName());
+
+    private final OperationService operationService;
+    private final ForkJoinPool pool;
+    private final Semaphore statementsInFlight;
+    private final int maxStatementsInFlight;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile long total;
+    private volatile long startNanos;
+    private volatile long endNanos;
+
+    public BulkStatementService(OperationService operationService, ForkJoinPool pool, int maxStatementsInFlight) {
+        if (maxStatementsInFlight <= 0)
+            throw new IllegalArgumentException("Statements in flight should be positive.");
+
+        this.operationService = operationService;
+        this.pool = pool;
+        this.statementsInFlight = new Semaphore(maxStatementsInFlight);
+        this.maxStatementsInFlight = maxStatementsInFlight;
+    }
+
+    public BulkStatementReport writeAllStatements(Function<UUID, StatementWriter> statementWriters) {
+        return writeStatements(operationService.findAllAccountIds(), statementWriters);
+    }
+
+    public BulkStatementReport writeStatements(Collection<UUID> accountIds, Function<UUID, StatementWriter> statementWriters) {
+        if (!running.compareAndSet(false, true))
+            throw new IllegalStateException("A bulk statement job is already running.");
+
+        try {
+            final UUID[] accounts = accountIds.toArray(UUID[]::new);
+            written.reset();
+            failed.reset();
+            total = accounts.length;
+            startNanos = System.nanoTime();
+            endNanos = 0;
+
+            pool.invoke(new StatementTask(accounts, 0, accounts.length, statementWriters));
+
+            endNanos = System.nanoTime();
+            return progress();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    public BulkStatementReport progress() {
+        final long start = startNanos;
+        final long end = endNanos == 0 ? System.nanoTime() : endNanos;
+        return new BulkStatementReport(total, written.sum(), failed.sum(), Duration.ofNanos(start == 0 ? 0 : end - start));
+    }
+
+    public int maxStatementsInFlight() {
+        return maxStatementsInFlight;
+    }
+
+    private void writeStatement(UUID accountId, Function<UUID, StatementWriter> statementWriters) {
+        acquireStatementSlot();
+        try {
+            final StatementWriter statementWriter = statementWriters.apply(accountId);
+            try {
+                operationService.writeStreamedStatement(accountId, statementWriter);
+            } finally {
+                if (statementWriter instanceof Closeable closeable)
+                    closeable.close();
+            }
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            LOGGER.log(System.Logger.Level.WARNING, "Statement of account " + accountId + " couldn't be written.", e);
+        } finally {
+            statementsInFlight.release();
+        }
+    }
+
+    private void acquireStatementSlot() {
+        final ForkJoinPool.ManagedBlocker blocker = new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() {
+                statementsInFlight.acquireUninterruptibly();
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return statementsInFlight.tryAcquire();
+            }
+        };
+
+        boolean interrupted = false;
+        while (true) {
+            try {
+                ForkJoinPool.managedBlock(blocker);
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    private final class StatementTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final UUID[] accountIds;
+        private final int from;
+        private final int to;
+        private final Function<UUID, StatementWriter> statementWriters;
+
+        private StatementTask(UUID[] accountIds, int from, int to, Function<UUID, StatementWriter> statementWriters) {
+            this.accountIds = accountIds;
+            this.from = from;
+            this.to = to;
+            this.statementWriters = statementWriters;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ACCOUNTS_PER_TASK) {
+                for (int index = from; index < to; index++) {
+                    writeStatement(accountIds[index], statementWriters);
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new StatementTask(accountIds, from, middle, statementWriters),
+                    new StatementTask(accountIds, middle, to, statementWriters));
+        }
+    }
+}
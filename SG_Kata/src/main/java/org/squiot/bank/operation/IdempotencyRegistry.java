@@ -0,0 +1,194 @@
+package org.squiot.bank.operation;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class IdempotencyRegistry {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofHours(24);
+    public static final int DEFAULT_MAX_ENTRIES = 1 << 16;
+    public static final int DEFAULT_SHARDS = 16;
+
+    private static final int BLOOM_BITS_PER_ENTRY = 10;
+    private static final int BLOOM_HASHES = 3;
+
+    private static final System.Logger LOGGER = System.getLogger(IdempotencyRegistry.class.getName());
+
+    private final Clock clock;
+    private final long windowMillis;
+    private final Shard[] shards;
+    private final int shardShift;
+    private final LongAdder forcedRotations = new LongAdder();
+    private final AtomicBoolean forcedRotationLogged = new AtomicBoolean();
+
+    public IdempotencyRegistry(Clock clock) {
+        this(clock, DEFAULT_WINDOW, DEFAULT_MAX_ENTRIES, DEFAULT_SHARDS);
+    }
+
+    public IdempotencyRegistry(Clock clock, Duration window, int maxEntries, int shards) {
+        if (window.isNegative() || window.isZero())
+            throw new IllegalArgumentException("Window should be positive.");
+        if (maxEntries <= 0 || shards <= 0 || Integer.bitCount(shards) != 1)
+            throw new IllegalArgumentException("Entries count should be positive and shards count a positive power of two.");
+
+        this.clock = clock;
+        this.windowMillis = window.toMillis();
+        this.shards = new Shard[shards];
+        this.shardShift = Long.SIZE - Integer.numberOfTrailingZeros(shards);
+
+        final int entriesPerGeneration = Math.max(1, maxEntries / shards / 2);
+        for (int index = 0; index < shards; index++) {
+            this.shards[index] = new Shard(entriesPerGeneration, clock.millis());
+        }
+    }
+
+    public Optional<Operation> find(UUID accountId, String idempotencyKey) {
+        final long hash = hash(accountId, idempotencyKey);
+        final Shard shard = shardOf(hash);
+        final long now = clock.millis();
+        shard.expire(now, windowMillis);
+
+        Operation operation = shard.current.find(hash, accountId, idempotencyKey);
+        if (operation == null)
+            operation = shard.previous.find(hash, accountId, idempotencyKey);
+        return Optional.ofNullable(operation);
+    }
+
+    public void register(UUID accountId, String idempotencyKey, Operation operation) {
+        final long hash = hash(accountId, idempotencyKey);
+        final long now = clock.millis();
+        final long generationAgeMillis = shardOf(hash).register(hash, new Key(accountId, idempotencyKey), operation, now);
+        if (generationAgeMillis >= 0)
+            forcedRotation(generationAgeMillis);
+    }
+
+    public long forcedRotations() {
+        return forcedRotations.sum();
+    }
+
+    public long size() {
+        long size = 0;
+        for (Shard shard : shards) {
+            size += shard.current.size() + shard.previous.size();
+        }
+        return size;
+    }
+
+    // Bloom probes use the low bits of the hash, so shards are picked from the high ones.
+    private Shard shardOf(long hash) {
+        return shards.length == 1 ? shards[0] : shards[(int) (hash >>> shardShift)];
+    }
+
+    private void forcedRotation(long generationAgeMillis) {
+        forcedRotations.increment();
+        if (forcedRotationLogged.compareAndSet(false, true))
+            LOGGER.log(System.Logger.Level.WARNING, "Idempotency registry shard filled up in " + generationAgeMillis
+                    + " ms, keys are kept for less than the " + windowMillis + " ms window; raise maxEntries for this operations rate.");
+    }
+
+    private static long hash(UUID accountId, String idempotencyKey) {
+        long hash = accountId.getMostSignificantBits() * 31 + accountId.getLeastSignificantBits();
+        hash = hash * 31 + idempotencyKey.hashCode();
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    private record Key(UUID accountId, String idempotencyKey) { }
+
+    private static final class Shard {
+
+        private final int entriesPerGeneration;
+        private volatile Generation current;
+        private volatile Generation previous;
+
+        private Shard(int entriesPerGeneration, long now) {
+            this.entriesPerGeneration = entriesPerGeneration;
+            this.current = new Generation(entriesPerGeneration, now);
+            this.previous = new Generation(entriesPerGeneration, now);
+        }
+
+        private void expire(long now, long windowMillis) {
+            final Generation generation = current;
+            if (now - generation.startMillis >= windowMillis)
+                rotate(generation, now, windowMillis);
+        }
+
+        // Returns the age of the generation rotated because it was full, or -1 when no rotation was forced.
+        private long register(long hash, Key key, Operation operation, long now) {
+            final Generation generation = current;
+            generation.register(hash, key, operation);
+            if (generation.size() >= entriesPerGeneration && rotate(generation, now, 0))
+                return now - generation.startMillis;
+            return -1;
+        }
+
+        private synchronized boolean rotate(Generation generation, long now, long windowMillis) {
+            if (current != generation || windowMillis > 0 && now - generation.startMillis < windowMillis)
+                return false;
+
+            previous = windowMillis > 0 && now - generation.startMillis >= 2 * windowMillis
+                    ? new Generation(entriesPerGeneration, now)
+                    : generation;
+            current = new Generation(entriesPerGeneration, now);
+            return true;
+        }
+    }
+
+    private static final class Generation {
+
+        private final long startMillis;
+        private final AtomicLongArray bloomFilter;
+        private final int bloomMask;
+        private final ConcurrentMap<Key, Operation> operations = new ConcurrentHashMap<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        private Generation(int entries, long startMillis) {
+            final int bits = Integer.highestOneBit(Math.max(64, entries * BLOOM_BITS_PER_ENTRY - 1) << 1);
+            this.startMillis = startMillis;
+            this.bloomFilter = new AtomicLongArray(bits / Long.SIZE);
+            this.bloomMask = bits - 1;
+        }
+
+        private Operation find(long hash, UUID accountId, String idempotencyKey) {
+            if (!mightContain(hash))
+                return null;
+            return operations.get(new Key(accountId, idempotencyKey));
+        }
+
+        private void register(long hash, Key key, Operation operation) {
+            final int increment = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                final int bit = ((int) hash + i * increment) & bloomMask;
+                final long bitMask = 1L << bit;
+                bloomFilter.getAndAccumulate(bit >>> 6, bitMask, (word, added) -> word | added);
+            }
+            if (operations.put(key, operation) == null)
+                size.incrementAndGet();
+        }
+
+        private boolean mightContain(long hash) {
+            final int increment = (int) (hash >>> 32) | 1;
+            for (int i = 0; i < BLOOM_HASHES; i++) {
+                final int bit = ((int) hash + i * increment) & bloomMask;
+                if ((bloomFilter.get(bit >>> 6) & (1L << bit)) == 0)
+                    return false;
+            }
+            return true;
+        }
+
+        private int size() {
+            return size.get();
+        }
+    }
+}
@@ -0,0 +1,181 @@
+package org.squiot.bank.operation;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.IdempotencyKeyConflictException;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.metrics.LatencyTimer;
+import org.squiot.bank.metrics.MetricsRegistry;
+import org.squiot.bank.operation.data.InstrumentedOperationDAO;
+import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.writer.InstrumentedStatementFormatter;
+import org.squiot.bank.writer.InstrumentedStatementWriter;
+import org.squiot.bank.writer.StatementFormatter;
+import org.squiot.bank.writer.StatementLinesCache;
+import org.squiot.bank.writer.StatementWriter;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class InstrumentedOperationService extends OperationService {
+
+    private final LatencyTimer depositTimer;
+    private final LatencyTimer withdrawalTimer;
+    private final LatencyTimer idempotentDepositTimer;
+    private final LatencyTimer idempotentWithdrawalTimer;
+    private final LatencyTimer transferTimer;
+    private final LatencyTimer batchTimer;
+    private final LatencyTimer statementTimer;
+
+    public InstrumentedOperationService(OperationDAO operationDAO, Clock clock, StatementFormatter statementFormatter,
+                                        StatementWriter statementWriter, MetricsRegistry metricsRegistry) {
+        this(operationDAO, clock, statementFormatter, statementWriter, new AccountLocks(), metricsRegistry);
+    }
+
+    public InstrumentedOperationService(OperationDAO operationDAO, Clock clock, StatementFormatter statementFormatter,
+                                        StatementWriter statementWriter, AccountLocks accountLocks, MetricsRegistry metricsRegistry) {
+        super(new InstrumentedOperationDAO(operationDAO, metricsRegistry), clock,
+                InstrumentedStatementFormatter.instrument(statementFormatter, metricsRegistry),
+                new InstrumentedStatementWriter(statementWriter, metricsRegistry),
+                accountLocks);
+        this.depositTimer = metricsRegistry.timer("operation.deposit");
+        this.withdrawalTimer = metricsRegistry.timer("operation.withdrawal");
+        this.idempotentDepositTimer = metricsRegistry.timer("operation.idempotentDeposit");
+        this.idempotentWithdrawalTimer = metricsRegistry.timer("operation.idempotentWithdrawal");
+        this.transferTimer = metricsRegistry.timer("operation.transfer");
+        this.batchTimer = metricsRegistry.timer("operation.applyBatch");
+        this.statementTimer = metricsRegistry.timer("operation.statement");
+    }
+
+    @Override
+    public Operation deposit(UUID accountId, Amount amount) throws NegativeAmountException {
+        final long start = System.nanoTime();
+        try {
+            return super.deposit(accountId, amount);
+        } catch (NegativeAmountException | RuntimeException e) {
+            depositTimer.recordRejection(e);
+            throw e;
+        } finally {
+            depositTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Operation withdrawal(UUID accountId, Amount amount) throws InsufficientBalanceException, NegativeAmountException {
+        final long start = System.nanoTime();
+        try {
+            return super.withdrawal(accountId, amount);
+        } catch (InsufficientBalanceException | NegativeAmountException | RuntimeException e) {
+            withdrawalTimer.recordRejection(e);
+            throw e;
+        } finally {
+            withdrawalTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Operation deposit(UUID accountId, Amount amount, String idempotencyKey) throws NegativeAmountException, IdempotencyKeyConflictException {
+        final long start = System.nanoTime();
+        try {
+            return super.deposit(accountId, amount, idempotencyKey);
+        } catch (NegativeAmountException | IdempotencyKeyConflictException | RuntimeException e) {
+            idempotentDepositTimer.recordRejection(e);
+            throw e;
+        } finally {
+            idempotentDepositTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Operation withdrawal(UUID accountId, Amount amount, String idempotencyKey) throws InsufficientBalanceException, NegativeAmountException, IdempotencyKeyConflictException {
+        final long start = System.nanoTime();
+        try {
+            return super.withdrawal(accountId, amount, idempotencyKey);
+        } catch (InsufficientBalanceException | NegativeAmountException | IdempotencyKeyConflictException | RuntimeException e) {
+            idempotentWithdrawalTimer.recordRejection(e);
+            throw e;
+        } finally {
+            idempotentWithdrawalTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Transfer transfer(UUID fromAccountId, UUID toAccountId, Amount amount) throws InsufficientBalanceException, NegativeAmountException {
+        final long start = System.nanoTime();
+        try {
+            return super.transfer(fromAccountId, toAccountId, amount);
+        } catch (InsufficientBalanceException | NegativeAmountException | RuntimeException e) {
+            transferTimer.recordRejection(e);
+            throw e;
+        } finally {
+            transferTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<OperationResult> applyBatch(List<OperationRequest> requests) {
+        final long start = System.nanoTime();
+        try {
+            return super.applyBatch(requests);
+        } catch (RuntimeException e) {
+            batchTimer.recordRejection(e);
+            throw e;
+        } finally {
+            batchTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void writeStatement(UUID accountId) {
+        final long start = System.nanoTime();
+        try {
+            super.writeStatement(accountId);
+        } catch (RuntimeException e) {
+            statementTimer.recordRejection(e);
+            throw e;
+        } finally {
+            statementTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void writeStatement(UUID accountId, StatementLinesCache statementLinesCache) {
+        final long start = System.nanoTime();
+        try {
+            super.writeStatement(accountId, statementLinesCache);
+        } catch (RuntimeException e) {
+            statementTimer.recordRejection(e);
+            throw e;
+        } finally {
+            statementTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void writeStatement(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        final long start = System.nanoTime();
+        try {
+            super.writeStatement(accountId, from, to);
+        } catch (RuntimeException e) {
+            statementTimer.recordRejection(e);
+            throw e;
+        } finally {
+            statementTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void writeStreamedStatement(UUID accountId, StatementWriter statementWriter) {
+        final long start = System.nanoTime();
+        try {
+            super.writeStreamedStatement(accountId, statementWriter);
+        } catch (RuntimeException e) {
+            statementTimer.recordRejection(e);
+            throw e;
+        } finally {
+            statementTimer.recordSince(start);
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package org.squiot.bank.operation;
 
-import java.math.BigDecimal;
+import org.squiot.bank.amount.Amount;
+
 import java.time.LocalDateTime;
 import java.util.UUID;
 
-public record Operation(OperationType operationType, UUID accountId,BigDecimal amount, LocalDateTime date, BigDecimal balance) { }
+public record Operation(OperationType operationType, UUID accountId, Amount amount, LocalDateTime date, Amount balance) { }
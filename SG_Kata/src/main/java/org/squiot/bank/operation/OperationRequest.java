@@ -0,0 +1,7 @@
+package org.squiot.bank.operation;
+
+import org.squiot.bank.amount.Amount;
+
+import java.util.UUID;
+
+public record OperationRequest(OperationType operationType, UUID accountId, Amount amount) { }
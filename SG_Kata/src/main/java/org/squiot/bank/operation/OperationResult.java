@@ -0,0 +1,16 @@
+package org.squiot.bank.operation;
+
+public record OperationResult(OperationRequest request, Operation operation, Exception failure) {
+
+    public static OperationResult success(OperationRequest request, Operation operation) {
+        return new OperationResult(request, operation, null);
+    }
+
+    public static OperationResult failure(OperationRequest request, Exception failure) {
+        return new OperationResult(request, null, failure);
+    }
+
+    public boolean isSuccess() {
+        return failure == null;
+    }
+}
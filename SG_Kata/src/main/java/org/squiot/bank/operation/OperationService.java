@@ -1,16 +1,30 @@
 package org.squiot.bank.operation;
 
 import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StatementPeriod;
+import org.squiot.bank.account.StreamedAccountStatement;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.IdempotencyKeyConflictException;
 import org.squiot.bank.exception.InsufficientBalanceException;
 import org.squiot.bank.exception.NegativeAmountException;
 import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.writer.LineStatementFormatter;
 import org.squiot.bank.writer.StatementFormatter;
+import org.squiot.bank.writer.StatementLinesCache;
 import org.squiot.bank.writer.StatementWriter;
 
-import java.math.BigDecimal;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.locks.Lock;
+import java.util.stream.Stream;
 
 public class OperationService {
 
@@ -18,43 +32,232 @@ public class OperationService {
     private final Clock clock;
     private final StatementFormatter statementFormatter;
     private final StatementWriter statementWriter;
+    private final AccountLocks accountLocks;
+    private final IdempotencyRegistry idempotencyRegistry;
 
     public OperationService(OperationDAO operationDAO, Clock clock,StatementFormatter statementFormatter,StatementWriter statementWriter) {
+        this(operationDAO, clock, statementFormatter, statementWriter, new AccountLocks());
+    }
+
+    public OperationService(OperationDAO operationDAO, Clock clock, StatementFormatter statementFormatter, StatementWriter statementWriter, AccountLocks accountLocks) {
+        this(operationDAO, clock, statementFormatter, statementWriter, accountLocks, new IdempotencyRegistry(clock));
+    }
+
+    public OperationService(OperationDAO operationDAO, Clock clock, StatementFormatter statementFormatter, StatementWriter statementWriter,
+                            AccountLocks accountLocks, IdempotencyRegistry idempotencyRegistry) {
         this.operationDAO = operationDAO;
         this.clock = clock;
         this.statementFormatter = statementFormatter;
         this.statementWriter = statementWriter;
+        this.accountLocks = accountLocks;
+        this.idempotencyRegistry = idempotencyRegistry;
     }
 
-    public Operation deposit(UUID accountId, BigDecimal amount) throws NegativeAmountException {
-        if (amount.compareTo(BigDecimal.ZERO) < 0)
-            throw new NegativeAmountException("Amount's value shouldn't be negative.");
+    public Operation deposit(UUID accountId, Amount amount) throws NegativeAmountException {
+        final Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            return depositLocked(accountId, amount);
+        } finally {
+            lock.unlock();
+        }
 
-        final BigDecimal balance = getBalanceFromLastOperationByAccountId(accountId);
-        final BigDecimal updatedBalance = balance.add(amount);
-        final Operation operation = new Operation(OperationType.DEPOSIT, accountId, amount, LocalDateTime.now(clock), updatedBalance);
+    }
 
-        return operationDAO.create(operation);
+
+    public Operation withdrawal(UUID accountId, Amount amount) throws InsufficientBalanceException, NegativeAmountException {
+        final Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            return withdrawalLocked(accountId, amount);
+        } finally {
+            lock.unlock();
+        }
 
     }
 
+    public Operation deposit(UUID accountId, Amount amount, String idempotencyKey) throws NegativeAmountException, IdempotencyKeyConflictException {
+        final Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            final Optional<Operation> original = idempotencyRegistry.find(accountId, idempotencyKey);
+            if (original.isPresent())
+                return replayed(original.get(), OperationType.DEPOSIT, amount);
+
+            final Operation operation = depositLocked(accountId, amount);
+            idempotencyRegistry.register(accountId, idempotencyKey, operation);
+            return operation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Operation withdrawal(UUID accountId, Amount amount, String idempotencyKey) throws InsufficientBalanceException, NegativeAmountException, IdempotencyKeyConflictException {
+        final Lock lock = accountLocks.lockFor(accountId);
+        lock.lock();
+        try {
+            final Optional<Operation> original = idempotencyRegistry.find(accountId, idempotencyKey);
+            if (original.isPresent())
+                return replayed(original.get(), OperationType.WITHDRAWAL, amount);
+
+            final Operation operation = withdrawalLocked(accountId, amount);
+            idempotencyRegistry.register(accountId, idempotencyKey, operation);
+            return operation;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The keyed overloads call these rather than the public methods, which subclasses may override and time on their own.
+    private Operation depositLocked(UUID accountId, Amount amount) throws NegativeAmountException {
+        if (amount.isNegative())
+            throw new NegativeAmountException("Amount's value shouldn't be negative.");
+
+        final Operation lastOperation = operationDAO.findLastOperationByAccountId(accountId).orElse(null);
+        final Amount updatedBalance = balanceOf(lastOperation).add(amount);
+        final Operation operation = new Operation(OperationType.DEPOSIT, accountId, amount, notBefore(LocalDateTime.now(clock), lastOperation), updatedBalance);
+
+        return operationDAO.create(operation);
+    }
 
-    public Operation withdrawal(UUID accountId, BigDecimal amount) throws InsufficientBalanceException, NegativeAmountException {
-        if (amount.compareTo(BigDecimal.ZERO) < 0)
+    private Operation withdrawalLocked(UUID accountId, Amount amount) throws InsufficientBalanceException, NegativeAmountException {
+        if (amount.isNegative())
             throw new NegativeAmountException("Amount's value shouldn't be negative.");
 
-        final BigDecimal balance = getBalanceFromLastOperationByAccountId(accountId);
+        final Operation lastOperation = operationDAO.findLastOperationByAccountId(accountId).orElse(null);
+        final Amount balance = balanceOf(lastOperation);
 
-        if (balance.compareTo(amount) < 0)
+        if (balance.isLessThan(amount))
             throw new InsufficientBalanceException("Balance is insufficient for this withdrawal.");
 
-        final BigDecimal updatedBalance = balance.subtract(amount);
-        final Operation operation = new Operation(OperationType.WITHDRAWAL, accountId, amount, LocalDateTime.now(clock), updatedBalance);
+        final Amount updatedBalance = balance.subtract(amount);
+        final Operation operation = new Operation(OperationType.WITHDRAWAL, accountId, amount, notBefore(LocalDateTime.now(clock), lastOperation), updatedBalance);
         return operationDAO.create(operation);
+    }
+
+    private static Operation replayed(Operation original, OperationType operationType, Amount amount) throws IdempotencyKeyConflictException {
+        if (original.operationType() != operationType || !original.amount().equals(amount))
+            throw new IdempotencyKeyConflictException("Idempotency key was already used for a different operation.");
+        return original;
+    }
+
+    public Transfer transfer(UUID fromAccountId, UUID toAccountId, Amount amount) throws InsufficientBalanceException, NegativeAmountException {
+        if (amount.isNegative())
+            throw new NegativeAmountException("Amount's value shouldn't be negative.");
+        if (fromAccountId.equals(toAccountId))
+            throw new IllegalArgumentException("A transfer should involve two different accounts.");
+
+        final List<Lock> locks = accountLocks.locksFor(fromAccountId, toAccountId);
+        locks.forEach(Lock::lock);
+        try {
+            final Map<UUID, Operation> lastOperations = operationDAO.findLastOperationsByAccountIds(List.of(fromAccountId, toAccountId));
+            final Operation fromLastOperation = lastOperations.get(fromAccountId);
+            final Operation toLastOperation = lastOperations.get(toAccountId);
+            final Amount fromBalance = balanceOf(fromLastOperation);
+            final Amount toBalance = balanceOf(toLastOperation);
+
+            if (fromBalance.isLessThan(amount))
+                throw new InsufficientBalanceException("Balance is insufficient for this transfer.");
+
+            final LocalDateTime date = notBefore(notBefore(LocalDateTime.now(clock), fromLastOperation), toLastOperation);
+            final Operation debit = new Operation(OperationType.TRANSFER_OUT, fromAccountId, amount, date, fromBalance.subtract(amount));
+            final Operation credit = new Operation(OperationType.TRANSFER_IN, toAccountId, amount, date, toBalance.add(amount));
+            final List<Operation> created = operationDAO.createAll(List.of(debit, credit));
+            return new Transfer(created.get(0), created.get(1));
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    public List<OperationResult> applyBatch(List<OperationRequest> requests) {
+        final Set<UUID> accountIds = new LinkedHashSet<>();
+        for (OperationRequest request : requests) {
+            accountIds.add(request.accountId());
+        }
+
+        final List<Lock> locks = accountLocks.locksFor(accountIds);
+        locks.forEach(Lock::lock);
+        try {
+            return applyBatchLocked(requests, accountIds);
+        } finally {
+            for (int i = locks.size() - 1; i >= 0; i--) {
+                locks.get(i).unlock();
+            }
+        }
+    }
+
+    private List<OperationResult> applyBatchLocked(List<OperationRequest> requests, Set<UUID> accountIds) {
+        final Map<UUID, Amount> balances = new HashMap<>();
+        LocalDateTime batchDate = LocalDateTime.now(clock);
+        for (Map.Entry<UUID, Operation> lastOperation : operationDAO.findLastOperationsByAccountIds(accountIds).entrySet()) {
+            balances.put(lastOperation.getKey(), lastOperation.getValue().balance());
+            batchDate = notBefore(batchDate, lastOperation.getValue());
+        }
+
+        final LocalDateTime date = batchDate;
+        final OperationResult[] results = new OperationResult[requests.size()];
+        final List<Operation> operations = new ArrayList<>(requests.size());
+        final List<Integer> operationIndexes = new ArrayList<>(requests.size());
+
+        for (int i = 0; i < requests.size(); i++) {
+            final OperationRequest request = requests.get(i);
+            final Amount balance = balances.getOrDefault(request.accountId(), Amount.ZERO);
+            try {
+                final Amount updatedBalance = applyOnBalance(request, balance);
+                balances.put(request.accountId(), updatedBalance);
+                operations.add(new Operation(request.operationType(), request.accountId(), request.amount(), date, updatedBalance));
+                operationIndexes.add(i);
+            } catch (NegativeAmountException | InsufficientBalanceException | IllegalArgumentException e) {
+                results[i] = OperationResult.failure(request, e);
+            }
+        }
 
+        if (!operations.isEmpty()) {
+            final List<Operation> created = operationDAO.createAll(operations);
+            for (int j = 0; j < created.size(); j++) {
+                final int index = operationIndexes.get(j);
+                results[index] = OperationResult.success(requests.get(index), created.get(j));
+            }
+        }
+
+        return List.of(results);
+    }
+
+    private static Amount applyOnBalance(OperationRequest request, Amount balance) throws NegativeAmountException, InsufficientBalanceException {
+        if (request.amount().isNegative())
+            throw new NegativeAmountException("Amount's value shouldn't be negative.");
+
+        return switch (request.operationType()) {
+            case DEPOSIT -> balance.add(request.amount());
+            case WITHDRAWAL -> {
+                if (balance.isLessThan(request.amount()))
+                    throw new InsufficientBalanceException("Balance is insufficient for this withdrawal.");
+                yield balance.subtract(request.amount());
+            }
+            case TRANSFER_OUT, TRANSFER_IN -> throw new IllegalArgumentException("Transfers can't be applied as a single batch operation.");
+        };
     }
 
     public void writeStatement(UUID accountId){
+        writeFullStatement(accountId);
+    }
+
+    // Only a formatter rendering one line per operation can reuse cached lines; any other one writes the full statement.
+    public void writeStatement(UUID accountId, StatementLinesCache statementLinesCache) {
+        if (!(statementFormatter instanceof LineStatementFormatter lineStatementFormatter)) {
+            writeFullStatement(accountId);
+            return;
+        }
+
+        statementWriter.write(
+                statementLinesCache.formatStatement(lineStatementFormatter, accountId, LocalDateTime.now(clock),
+                        fromIndex -> operationDAO.findSortedOperationsByAccountIdFrom(accountId, fromIndex))
+        );
+    }
+
+    private void writeFullStatement(UUID accountId) {
         final AccountStatement accountStatement = new AccountStatement(
                 accountId,
                 LocalDateTime.now(clock),
@@ -67,8 +270,60 @@ public class OperationService {
         );
     }
 
-    private BigDecimal getBalanceFromLastOperationByAccountId(UUID accountId) {
+    public void writeStatement(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        final List<Operation> operations = operationDAO.findSortedOperationsByAccountIdBetween(accountId, from, to);
+        final Amount openingBalance = operationDAO.findLastOperationByAccountIdBefore(accountId, from)
+                .map(Operation::balance)
+                .orElse(Amount.ZERO);
+        final Amount closingBalance = operations.isEmpty() ? openingBalance : operations.get(operations.size() - 1).balance();
+
+        final AccountStatement accountStatement = new AccountStatement(
+                accountId,
+                LocalDateTime.now(clock),
+                operations,
+                closingBalance,
+                new StatementPeriod(from, to, openingBalance)
+        );
+
+        statementWriter.write(
+                statementFormatter.formatStatement(accountStatement)
+        );
+    }
+
+    public void writeStreamedStatement(UUID accountId) {
+        writeStreamedStatement(accountId, statementWriter);
+    }
+
+    public void writeStreamedStatement(UUID accountId, StatementWriter statementWriter) {
+        try (Stream<Operation> operations = operationDAO.streamSortedOperationsByAccountId(accountId)) {
+            final StreamedAccountStatement accountStatement = new StreamedAccountStatement(
+                    accountId,
+                    LocalDateTime.now(clock),
+                    operations,
+                    getBalanceFromLastOperationByAccountId(accountId)
+            );
+
+            try (Stream<String> statementLines = statementFormatter.formatStatement(accountStatement)) {
+                statementWriter.write(statementLines);
+            }
+        }
+    }
+
+    public Set<UUID> findAllAccountIds() {
+        return operationDAO.findAllAccountIds();
+    }
+
+    // Dates never go back on an account, even when the clock does, so every DAO gets a history sorted by date.
+    private static LocalDateTime notBefore(LocalDateTime date, Operation lastOperation) {
+        return lastOperation == null || !date.isBefore(lastOperation.date()) ? date : lastOperation.date();
+    }
+
+    private static Amount balanceOf(Operation lastOperation) {
+        return lastOperation == null ? Amount.ZERO : lastOperation.balance();
+    }
+
+    private Amount getBalanceFromLastOperationByAccountId(UUID accountId) {
         return operationDAO.findLastOperationByAccountId(accountId).map(Operation::balance)
-                .orElse(BigDecimal.ZERO);
+                .orElse(Amount.ZERO);
     }
 }
\ No newline at end of file
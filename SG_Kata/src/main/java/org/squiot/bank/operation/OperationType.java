@@ -2,5 +2,7 @@ package org.squiot.bank.operation;
 
 public enum OperationType {
     DEPOSIT,
-    WITHDRAWAL
+    WITHDRAWAL,
+    TRANSFER_OUT,
+    TRANSFER_IN
 }
@@ -0,0 +1,154 @@
+package org.squiot.bank.operation;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.writer.StatementFormatter;
+import org.squiot.bank.writer.StatementWriter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+public class ShardedOperationService implements AutoCloseable {
+
+    public static final int DEFAULT_QUEUE_CAPACITY = 65_536;
+    public static final Duration DEFAULT_CLOSE_TIMEOUT = Duration.ofMinutes(1);
+
+    private static final System.Logger LOGGER = System.getLogger(ShardedOperationService.class.getName());
+
+    private final Shard[] shards;
+
+    public ShardedOperationService(int shardCount, IntFunction<OperationDAO> operationDAOFactory, Clock clock,
+                                   StatementFormatter statementFormatter, StatementWriter statementWriter) {
+        this(shardCount, operationDAOFactory, clock, statementFormatter, statementWriter, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    public ShardedOperationService(int shardCount, IntFunction<OperationDAO> operationDAOFactory, Clock clock,
+                                   StatementFormatter statementFormatter, StatementWriter statementWriter, int queueCapacity) {
+        if (shardCount <= 0)
+            throw new IllegalArgumentException("Shards count should be positive.");
+
+        this.shards = new Shard[shardCount];
+        for (int index = 0; index < shardCount; index++) {
+            final OperationService operationService = new OperationService(
+                    operationDAOFactory.apply(index), clock, statementFormatter, statementWriter, AccountLocks.singleWriter());
+            shards[index] = new Shard(index, operationService, queueCapacity);
+        }
+    }
+
+    public CompletableFuture<Operation> deposit(UUID accountId, Amount amount) {
+        final Shard shard = shardOf(accountId);
+        return shard.submit(() -> shard.operationService.deposit(accountId, amount));
+    }
+
+    public CompletableFuture<Operation> withdrawal(UUID accountId, Amount amount) {
+        final Shard shard = shardOf(accountId);
+        return shard.submit(() -> shard.operationService.withdrawal(accountId, amount));
+    }
+
+    public CompletableFuture<Void> writeStatement(UUID accountId) {
+        final Shard shard = shardOf(accountId);
+        return shard.submit(() -> {
+            shard.operationService.writeStatement(accountId);
+            return null;
+        });
+    }
+
+    public int shardCount() {
+        return shards.length;
+    }
+
+    public int shardIndexOf(UUID accountId) {
+        final int hash = accountId.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    public int[] queueDepths() {
+        final int[] queueDepths = new int[shards.length];
+        for (int index = 0; index < shards.length; index++) {
+            queueDepths[index] = shards[index].queueDepth();
+        }
+        return queueDepths;
+    }
+
+    @Override
+    public void close() {
+        close(DEFAULT_CLOSE_TIMEOUT);
+    }
+
+    // Returns whether every shard finished its queued operations in time; the stragglers are interrupted.
+    public boolean close(Duration timeout) {
+        for (Shard shard : shards) {
+            shard.executor.shutdown();
+        }
+
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        boolean terminated = true;
+        for (int index = 0; index < shards.length; index++) {
+            try {
+                if (!shards[index].executor.awaitTermination(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    LOGGER.log(System.Logger.Level.WARNING, "Shard " + index + " didn't terminate within " + timeout
+                            + ", " + shards[index].queueDepth() + " queued operations are dropped.");
+                    shards[index].executor.shutdownNow();
+                    terminated = false;
+                }
+            } catch (InterruptedException e) {
+                for (Shard shard : shards) {
+                    shard.executor.shutdownNow();
+                }
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return terminated;
+    }
+
+    private Shard shardOf(UUID accountId) {
+        return shards[shardIndexOf(accountId)];
+    }
+
+    private static final class Shard {
+
+        private final OperationService operationService;
+        private final ThreadPoolExecutor executor;
+
+        private Shard(int index, OperationService operationService, int queueCapacity) {
+            this.operationService = operationService;
+            this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                final Thread thread = new Thread(runnable, "operation-shard-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        private <T> CompletableFuture<T> submit(Callable<T> task) {
+            final CompletableFuture<T> result = new CompletableFuture<>();
+            try {
+                executor.execute(() -> {
+                    try {
+                        result.complete(task.call());
+                    } catch (Exception e) {
+                        result.completeExceptionally(e);
+                    } catch (Error e) {
+                        result.completeExceptionally(e);
+                        throw e;
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                result.completeExceptionally(e);
+            }
+            return result;
+        }
+
+        private int queueDepth() {
+            return executor.getQueue().size();
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package org.squiot.bank.operation;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+
+final class SingleWriterLock implements Lock {
+
+    static final SingleWriterLock INSTANCE = new SingleWriterLock();
+
+    private SingleWriterLock() {
+    }
+
+    @Override
+    public void lock() {
+    }
+
+    @Override
+    public void lockInterruptibly() {
+    }
+
+    @Override
+    public boolean tryLock() {
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(long time, TimeUnit unit) {
+        return true;
+    }
+
+    @Override
+    public void unlock() {
+    }
+
+    @Override
+    public Condition newCondition() {
+        throw new UnsupportedOperationException("A single writer never waits on a condition.");
+    }
+}
@@ -0,0 +1,52 @@
+package org.squiot.bank.operation;
+
+import org.squiot.bank.account.PeriodRollup;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.account.SummaryStatement;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.data.rollup.RollupOperationDAO;
+import org.squiot.bank.writer.StatementWriter;
+import org.squiot.bank.writer.SummaryStatementFormatter;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public class SummaryStatementService {
+
+    private final RollupOperationDAO rollupOperationDAO;
+    private final Clock clock;
+    private final SummaryStatementFormatter summaryStatementFormatter;
+    private final StatementWriter statementWriter;
+
+    public SummaryStatementService(RollupOperationDAO rollupOperationDAO, Clock clock, SummaryStatementFormatter summaryStatementFormatter, StatementWriter statementWriter) {
+        this.rollupOperationDAO = rollupOperationDAO;
+        this.clock = clock;
+        this.summaryStatementFormatter = summaryStatementFormatter;
+        this.statementWriter = statementWriter;
+    }
+
+    public void writeSummaryStatement(UUID accountId, RollupPeriod period) {
+        writeSummaryStatement(accountId, period, rollupOperationDAO.findRollupsByAccountId(accountId, period));
+    }
+
+    public void writeSummaryStatement(UUID accountId, RollupPeriod period, LocalDate from, LocalDate to) {
+        writeSummaryStatement(accountId, period, rollupOperationDAO.findRollupsByAccountIdBetween(accountId, period, from, to));
+    }
+
+    private void writeSummaryStatement(UUID accountId, RollupPeriod period, List<PeriodRollup> rollups) {
+        final SummaryStatement summaryStatement = new SummaryStatement(
+                accountId,
+                LocalDateTime.now(clock),
+                period,
+                rollups,
+                rollupOperationDAO.findLastOperationByAccountId(accountId).map(Operation::balance).orElse(Amount.ZERO)
+        );
+
+        statementWriter.write(
+                summaryStatementFormatter.formatStatement(summaryStatement)
+        );
+    }
+}
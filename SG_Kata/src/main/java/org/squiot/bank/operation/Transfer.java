@@ -0,0 +1,3 @@
+package org.squiot.bank.operation;
+
+public record Transfer(Operation debit, Operation credit) { }
@@ -0,0 +1,89 @@
+package org.squiot.bank.operation.data;
+
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+final class AccountLedger {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    // Appends are serialized on the ledger; readers only go through the volatile fields, so they never block.
+    private volatile Operation[] operations = new Operation[INITIAL_CAPACITY];
+    private volatile int size;
+
+    synchronized void append(Operation operation) {
+        Operation[] current = operations;
+        final int currentSize = size;
+        if (currentSize > 0 && operation.date().isBefore(current[currentSize - 1].date()))
+            throw new IllegalArgumentException("Operation is older than the last operation of account " + operation.accountId() + ".");
+
+        if (currentSize == current.length) {
+            current = Arrays.copyOf(current, currentSize * 2);
+            operations = current;
+        }
+
+        current[currentSize] = operation;
+        size = currentSize + 1;
+    }
+
+    Optional<Operation> last() {
+        final int currentSize = size;
+        if (currentSize == 0)
+            return Optional.empty();
+
+        return Optional.of(operations[currentSize - 1]);
+    }
+
+    List<Operation> snapshot() {
+        final int currentSize = size;
+        return Collections.unmodifiableList(Arrays.asList(operations).subList(0, currentSize));
+    }
+
+    List<Operation> snapshot(int fromIndex, int toIndex) {
+        final int currentSize = size;
+        final int to = Math.min(toIndex, currentSize);
+        final int from = Math.min(fromIndex, to);
+        return Collections.unmodifiableList(Arrays.asList(operations).subList(from, to));
+    }
+
+    List<Operation> between(LocalDateTime from, LocalDateTime to) {
+        final int currentSize = size;
+        final Operation[] current = operations;
+        final int fromIndex = firstIndexAtOrAfter(current, currentSize, from);
+        final int toIndex = firstIndexAtOrAfter(current, currentSize, to);
+        return Collections.unmodifiableList(Arrays.asList(current).subList(fromIndex, Math.max(fromIndex, toIndex)));
+    }
+
+    Optional<Operation> lastBefore(LocalDateTime date) {
+        final int currentSize = size;
+        final Operation[] current = operations;
+        final int index = firstIndexAtOrAfter(current, currentSize, date) - 1;
+        if (index < 0)
+            return Optional.empty();
+
+        return Optional.of(current[index]);
+    }
+
+    // Appends reject a date older than the last one, so the ledger stays sorted by date and doubles as a time index.
+    private static int firstIndexAtOrAfter(Operation[] current, int currentSize, LocalDateTime date) {
+        int low = 0;
+        int high = currentSize;
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (current[middle].date().isBefore(date))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+
+    int size() {
+        return size;
+    }
+}
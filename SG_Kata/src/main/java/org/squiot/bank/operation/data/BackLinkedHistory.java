@@ -0,0 +1,122 @@
+package org.squiot.bank.operation.data;
+
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class BackLinkedHistory implements Iterator<Operation> {
+
+    public static final int CHUNK_SIZE = 1024;
+
+    private final Links links;
+    private final long lastPosition;
+    private final long[] chunkEnds;
+    private final long operationsCount;
+    private final Operation[] chunk;
+    private int chunkIndex = -1;
+    private int chunkSize;
+    private int positionInChunk;
+    private long emitted;
+
+    private BackLinkedHistory(Links links, long lastPosition, long count, long fromIndex) {
+        this.links = links;
+        this.lastPosition = lastPosition;
+        this.operationsCount = Math.max(0, count - fromIndex);
+        this.chunkEnds = new long[(int) ((operationsCount + CHUNK_SIZE - 1) / CHUNK_SIZE)];
+        this.chunk = new Operation[(int) Math.min(CHUNK_SIZE, operationsCount)];
+    }
+
+    public static Stream<Operation> stream(Links links, long lastPosition, long count, long fromIndex) {
+        return StreamSupport.stream(Spliterators.spliterator(new BackLinkedHistory(links, lastPosition, count, fromIndex),
+                Math.max(0, count - fromIndex), Spliterator.ORDERED | Spliterator.NONNULL | Spliterator.IMMUTABLE), false);
+    }
+
+    // Both walks go back from the last operation and stop at the first one dated before the range, which holds because appends keep dates sorted.
+    public static List<Operation> between(Links links, long lastPosition, long count, LocalDateTime from, LocalDateTime to) {
+        final List<Operation> operations = new ArrayList<>();
+        long position = lastPosition;
+        for (long index = count - 1; index >= 0; index--) {
+            final Operation operation = links.read(position);
+            if (operation.date().isBefore(from))
+                break;
+            if (operation.date().isBefore(to))
+                operations.add(operation);
+            if (index > 0)
+                position = links.previous(position);
+        }
+        Collections.reverse(operations);
+        return operations;
+    }
+
+    public static Optional<Operation> lastBefore(Links links, long lastPosition, long count, LocalDateTime date) {
+        long position = lastPosition;
+        for (long index = count - 1; index >= 0; index--) {
+            final Operation operation = links.read(position);
+            if (operation.date().isBefore(date))
+                return Optional.of(operation);
+            if (index > 0)
+                position = links.previous(position);
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public boolean hasNext() {
+        return emitted < operationsCount;
+    }
+
+    @Override
+    public Operation next() {
+        if (!hasNext())
+            throw new NoSuchElementException();
+
+        if (positionInChunk == chunkSize)
+            loadNextChunk();
+        final Operation operation = chunk[positionInChunk];
+        chunk[positionInChunk++] = null;
+        emitted++;
+        return operation;
+    }
+
+    private void locateChunkEnds() {
+        long position = lastPosition;
+        for (long index = operationsCount - 1; index >= 0; index--) {
+            if (index == operationsCount - 1 || (index + 1) % CHUNK_SIZE == 0)
+                chunkEnds[(int) (index / CHUNK_SIZE)] = position;
+            if (index < CHUNK_SIZE)
+                break;
+            position = links.previous(position);
+        }
+    }
+
+    private void loadNextChunk() {
+        if (chunkIndex < 0)
+            locateChunkEnds();
+        chunkIndex++;
+        chunkSize = (int) Math.min(CHUNK_SIZE, operationsCount - (long) chunkIndex * CHUNK_SIZE);
+        positionInChunk = 0;
+
+        long position = chunkEnds[chunkIndex];
+        for (int index = chunkSize - 1; index >= 0; index--) {
+            chunk[index] = links.read(position);
+            if (index > 0)
+                position = links.previous(position);
+        }
+    }
+
+    public interface Links {
+        long previous(long position);
+
+        Operation read(long position);
+    }
+}
@@ -0,0 +1,226 @@
+package org.squiot.bank.operation.data;
+
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class CachingOperationDAO implements OperationDAO {
+
+    public static final int DEFAULT_SEGMENTS = 64;
+
+    private final OperationDAO operationDAO;
+    private final Segment[] segments;
+    private final int mask;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public CachingOperationDAO(OperationDAO operationDAO, int maxAccounts) {
+        this(operationDAO, maxAccounts, DEFAULT_SEGMENTS);
+    }
+
+    public CachingOperationDAO(OperationDAO operationDAO, int maxAccounts, int segments) {
+        if (maxAccounts <= 0)
+            throw new IllegalArgumentException("Cached accounts count should be positive.");
+        if (segments <= 0)
+            throw new IllegalArgumentException("Segments count should be positive.");
+
+        final int segmentsCount = Integer.highestOneBit(Math.min(segments, maxAccounts));
+        final int accountsPerSegment = Math.max(1, maxAccounts / segmentsCount);
+
+        this.operationDAO = operationDAO;
+        this.segments = new Segment[segmentsCount];
+        this.mask = segmentsCount - 1;
+        for (int index = 0; index < segmentsCount; index++) {
+            this.segments[index] = new Segment(accountsPerSegment);
+        }
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountId(UUID accountId) {
+        final Segment segment = segmentOf(accountId);
+        final Operation cached = segment.get(accountId);
+        if (cached != null) {
+            hits.increment();
+            return Optional.of(cached);
+        }
+
+        misses.increment();
+        final long version = segment.version();
+        final Optional<Operation> lastOperation = operationDAO.findLastOperationByAccountId(accountId);
+        lastOperation.ifPresent(operation -> segment.putIfUnchanged(accountId, operation, version));
+        return lastOperation;
+    }
+
+    @Override
+    public Map<UUID, Operation> findLastOperationsByAccountIds(Collection<UUID> accountIds) {
+        final Map<UUID, Operation> lastOperations = new HashMap<>();
+        final Map<UUID, Long> coldVersions = new LinkedHashMap<>();
+
+        for (UUID accountId : accountIds) {
+            final Segment segment = segmentOf(accountId);
+            final long version = segment.version();
+            final Operation cached = segment.get(accountId);
+            if (cached != null) {
+                hits.increment();
+                lastOperations.put(accountId, cached);
+            } else {
+                misses.increment();
+                coldVersions.put(accountId, version);
+            }
+        }
+
+        if (!coldVersions.isEmpty()) {
+            operationDAO.findLastOperationsByAccountIds(new ArrayList<>(coldVersions.keySet())).forEach((accountId, operation) -> {
+                segmentOf(accountId).putIfUnchanged(accountId, operation, coldVersions.get(accountId));
+                lastOperations.put(accountId, operation);
+            });
+        }
+        return lastOperations;
+    }
+
+    @Override
+    public Operation create(Operation operation) {
+        final Operation created = operationDAO.create(operation);
+        segmentOf(created.accountId()).put(created.accountId(), created);
+        return created;
+    }
+
+    @Override
+    public List<Operation> createAll(List<Operation> operations) {
+        final List<Operation> created = operationDAO.createAll(operations);
+        for (Operation operation : created) {
+            segmentOf(operation.accountId()).put(operation.accountId(), operation);
+        }
+        return created;
+    }
+
+    @Override
+    public List<Operation> findAllSortedOperationsByAccountId(UUID accountId) {
+        return operationDAO.findAllSortedOperationsByAccountId(accountId);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountId(UUID accountId) {
+        return operationDAO.streamSortedOperationsByAccountId(accountId);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        return operationDAO.streamSortedOperationsByAccountIdFrom(accountId, fromIndex);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        return operationDAO.findSortedOperationsByAccountIdBetween(accountId, from, to);
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        return operationDAO.findLastOperationByAccountIdBefore(accountId, date);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountId(UUID accountId, int page, int pageSize) {
+        return operationDAO.findSortedOperationsByAccountId(accountId, page, pageSize);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        return operationDAO.findSortedOperationsByAccountIdFrom(accountId, fromIndex);
+    }
+
+    @Override
+    public Set<UUID> findAllAccountIds() {
+        return operationDAO.findAllAccountIds();
+    }
+
+    public void invalidate(UUID accountId) {
+        segmentOf(accountId).remove(accountId);
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    public int cachedAccounts() {
+        int cachedAccounts = 0;
+        for (Segment segment : segments) {
+            cachedAccounts += segment.size();
+        }
+        return cachedAccounts;
+    }
+
+    private Segment segmentOf(UUID accountId) {
+        final int hash = accountId.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private final class Segment {
+
+        private final Map<UUID, Operation> lastOperations;
+        private long version;
+
+        private Segment(int maxAccounts) {
+            this.lastOperations = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<UUID, Operation> eldest) {
+                    if (size() <= maxAccounts)
+                        return false;
+
+                    evictions.increment();
+                    return true;
+                }
+            };
+        }
+
+        private synchronized Operation get(UUID accountId) {
+            return lastOperations.get(accountId);
+        }
+
+        private synchronized long version() {
+            return version;
+        }
+
+        private synchronized void put(UUID accountId, Operation operation) {
+            version++;
+            lastOperations.put(accountId, operation);
+        }
+
+        // A miss reads the backing store without the account lock: a write or invalidation in the segment since the
+        // version was taken may have made the value stale, even if its entry was evicted meanwhile, so it isn't installed then.
+        private synchronized void putIfUnchanged(UUID accountId, Operation operation, long readVersion) {
+            if (version == readVersion)
+                lastOperations.putIfAbsent(accountId, operation);
+        }
+
+        private synchronized void remove(UUID accountId) {
+            version++;
+            lastOperations.remove(accountId);
+        }
+
+        private synchronized int size() {
+            return lastOperations.size();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.squiot.bank.operation.data;
+
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+public class InMemoryOperationDAO implements OperationDAO {
+
+    private final ConcurrentMap<UUID, AccountLedger> ledgers = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountId(UUID accountId) {
+        final AccountLedger ledger = ledgers.get(accountId);
+        if (ledger == null)
+            return Optional.empty();
+
+        return ledger.last();
+    }
+
+    @Override
+    public List<Operation> findAllSortedOperationsByAccountId(UUID accountId) {
+        final AccountLedger ledger = ledgers.get(accountId);
+        if (ledger == null)
+            return List.of();
+
+        return ledger.snapshot();
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        final AccountLedger ledger = ledgers.get(accountId);
+        if (ledger == null)
+            return List.of();
+
+        return ledger.between(from, to);
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        final AccountLedger ledger = ledgers.get(accountId);
+        if (ledger == null)
+            return Optional.empty();
+
+        return ledger.lastBefore(date);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountId(UUID accountId, int page, int pageSize) {
+        final AccountLedger ledger = ledgers.get(accountId);
+        if (ledger == null)
+            return List.of();
+
+        final long from = Pages.firstIndex(page, pageSize);
+        return ledger.snapshot((int) Math.min(from, Integer.MAX_VALUE), (int) Math.min(from + pageSize, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final AccountLedger ledger = ledgers.get(accountId);
+        if (ledger == null)
+            return List.of();
+
+        return ledger.snapshot(fromIndex, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        return findSortedOperationsByAccountIdFrom(accountId, fromIndex).stream();
+    }
+
+    @Override
+    public Set<UUID> findAllAccountIds() {
+        return Collections.unmodifiableSet(ledgers.keySet());
+    }
+
+    @Override
+    public Operation create(Operation operation) {
+        ledgers.computeIfAbsent(operation.accountId(), id -> new AccountLedger())
+                .append(operation);
+        return operation;
+    }
+}
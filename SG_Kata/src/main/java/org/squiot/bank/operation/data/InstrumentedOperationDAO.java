@@ -0,0 +1,201 @@
+package org.squiot.bank.operation.data;
+
+import org.squiot.bank.metrics.LatencyTimer;
+import org.squiot.bank.metrics.MetricsRegistry;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class InstrumentedOperationDAO implements OperationDAO {
+
+    private final OperationDAO operationDAO;
+    private final LatencyTimer findLastOperationByAccountIdTimer;
+    private final LatencyTimer findAllSortedOperationsByAccountIdTimer;
+    private final LatencyTimer createTimer;
+    private final LatencyTimer streamSortedOperationsByAccountIdTimer;
+    private final LatencyTimer streamSortedOperationsByAccountIdFromTimer;
+    private final LatencyTimer findSortedOperationsByAccountIdBetweenTimer;
+    private final LatencyTimer findLastOperationByAccountIdBeforeTimer;
+    private final LatencyTimer findSortedOperationsByAccountIdTimer;
+    private final LatencyTimer findSortedOperationsByAccountIdFromTimer;
+    private final LatencyTimer findLastOperationsByAccountIdsTimer;
+    private final LatencyTimer createAllTimer;
+    private final LatencyTimer findAllAccountIdsTimer;
+
+    public InstrumentedOperationDAO(OperationDAO operationDAO, MetricsRegistry metricsRegistry) {
+        this.operationDAO = operationDAO;
+        this.findLastOperationByAccountIdTimer = metricsRegistry.timer("dao.findLastOperationByAccountId");
+        this.findAllSortedOperationsByAccountIdTimer = metricsRegistry.timer("dao.findAllSortedOperationsByAccountId");
+        this.createTimer = metricsRegistry.timer("dao.create");
+        this.streamSortedOperationsByAccountIdTimer = metricsRegistry.timer("dao.streamSortedOperationsByAccountId");
+        this.streamSortedOperationsByAccountIdFromTimer = metricsRegistry.timer("dao.streamSortedOperationsByAccountIdFrom");
+        this.findSortedOperationsByAccountIdBetweenTimer = metricsRegistry.timer("dao.findSortedOperationsByAccountIdBetween");
+        this.findLastOperationByAccountIdBeforeTimer = metricsRegistry.timer("dao.findLastOperationByAccountIdBefore");
+        this.findSortedOperationsByAccountIdTimer = metricsRegistry.timer("dao.findSortedOperationsByAccountId");
+        this.findSortedOperationsByAccountIdFromTimer = metricsRegistry.timer("dao.findSortedOperationsByAccountIdFrom");
+        this.findLastOperationsByAccountIdsTimer = metricsRegistry.timer("dao.findLastOperationsByAccountIds");
+        this.createAllTimer = metricsRegistry.timer("dao.createAll");
+        this.findAllAccountIdsTimer = metricsRegistry.timer("dao.findAllAccountIds");
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountId(UUID accountId) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findLastOperationByAccountId(accountId);
+        } catch (RuntimeException e) {
+            findLastOperationByAccountIdTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findLastOperationByAccountIdTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Operation> findAllSortedOperationsByAccountId(UUID accountId) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findAllSortedOperationsByAccountId(accountId);
+        } catch (RuntimeException e) {
+            findAllSortedOperationsByAccountIdTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findAllSortedOperationsByAccountIdTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Operation create(Operation operation) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.create(operation);
+        } catch (RuntimeException e) {
+            createTimer.recordRejection(e);
+            throw e;
+        } finally {
+            createTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountId(UUID accountId) {
+        final long start = System.nanoTime();
+        try {
+            return streamSortedOperationsByAccountIdTimer.recordOnClose(operationDAO.streamSortedOperationsByAccountId(accountId), start);
+        } catch (RuntimeException e) {
+            streamSortedOperationsByAccountIdTimer.recordRejection(e);
+            streamSortedOperationsByAccountIdTimer.recordSince(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final long start = System.nanoTime();
+        try {
+            return streamSortedOperationsByAccountIdFromTimer.recordOnClose(operationDAO.streamSortedOperationsByAccountIdFrom(accountId, fromIndex), start);
+        } catch (RuntimeException e) {
+            streamSortedOperationsByAccountIdFromTimer.recordRejection(e);
+            streamSortedOperationsByAccountIdFromTimer.recordSince(start);
+            throw e;
+        }
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findSortedOperationsByAccountIdBetween(accountId, from, to);
+        } catch (RuntimeException e) {
+            findSortedOperationsByAccountIdBetweenTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findSortedOperationsByAccountIdBetweenTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findLastOperationByAccountIdBefore(accountId, date);
+        } catch (RuntimeException e) {
+            findLastOperationByAccountIdBeforeTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findLastOperationByAccountIdBeforeTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountId(UUID accountId, int page, int pageSize) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findSortedOperationsByAccountId(accountId, page, pageSize);
+        } catch (RuntimeException e) {
+            findSortedOperationsByAccountIdTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findSortedOperationsByAccountIdTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findSortedOperationsByAccountIdFrom(accountId, fromIndex);
+        } catch (RuntimeException e) {
+            findSortedOperationsByAccountIdFromTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findSortedOperationsByAccountIdFromTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Map<UUID, Operation> findLastOperationsByAccountIds(Collection<UUID> accountIds) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findLastOperationsByAccountIds(accountIds);
+        } catch (RuntimeException e) {
+            findLastOperationsByAccountIdsTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findLastOperationsByAccountIdsTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public List<Operation> createAll(List<Operation> operations) {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.createAll(operations);
+        } catch (RuntimeException e) {
+            createAllTimer.recordRejection(e);
+            throw e;
+        } finally {
+            createAllTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Set<UUID> findAllAccountIds() {
+        final long start = System.nanoTime();
+        try {
+            return operationDAO.findAllAccountIds();
+        } catch (RuntimeException e) {
+            findAllAccountIdsTimer.recordRejection(e);
+            throw e;
+        } finally {
+            findAllAccountIdsTimer.recordSince(start);
+        }
+    }
+}
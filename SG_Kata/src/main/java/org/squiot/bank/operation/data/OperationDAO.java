@@ -2,12 +2,68 @@ package org.squiot.bank.operation.data;
 
 import org.squiot.bank.operation.Operation;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 public interface OperationDAO {
     Optional<Operation> findLastOperationByAccountId(UUID accountId);
     List<Operation> findAllSortedOperationsByAccountId(UUID accountId);
     Operation create(Operation operation);
+    Set<UUID> findAllAccountIds();
+
+    default Stream<Operation> streamSortedOperationsByAccountId(UUID accountId) {
+        return findAllSortedOperationsByAccountId(accountId).stream();
+    }
+
+    default Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        return streamSortedOperationsByAccountId(accountId).skip(fromIndex);
+    }
+
+    default List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        return findAllSortedOperationsByAccountId(accountId).stream()
+                .filter(operation -> !operation.date().isBefore(from) && operation.date().isBefore(to))
+                .toList();
+    }
+
+    default Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        Operation lastOperation = null;
+        for (Operation operation : findAllSortedOperationsByAccountId(accountId)) {
+            if (!operation.date().isBefore(date))
+                break;
+            lastOperation = operation;
+        }
+        return Optional.ofNullable(lastOperation);
+    }
+
+    default List<Operation> findSortedOperationsByAccountId(UUID accountId, int page, int pageSize) {
+        final long firstIndex = Pages.firstIndex(page, pageSize);
+        final List<Operation> operations = findAllSortedOperationsByAccountId(accountId);
+        final int from = (int) Math.min(firstIndex, operations.size());
+        final int to = (int) Math.min((long) from + pageSize, operations.size());
+        return operations.subList(from, to);
+    }
+
+    default List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final List<Operation> operations = findAllSortedOperationsByAccountId(accountId);
+        return operations.subList(Math.min(fromIndex, operations.size()), operations.size());
+    }
+
+    default Map<UUID, Operation> findLastOperationsByAccountIds(Collection<UUID> accountIds) {
+        final Map<UUID, Operation> lastOperations = new HashMap<>();
+        for (UUID accountId : accountIds) {
+            findLastOperationByAccountId(accountId).ifPresent(operation -> lastOperations.put(accountId, operation));
+        }
+        return lastOperations;
+    }
+
+    default List<Operation> createAll(List<Operation> operations) {
+        return operations.stream().map(this::create).toList();
+    }
 }
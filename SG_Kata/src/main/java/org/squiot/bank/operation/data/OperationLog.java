@@ -0,0 +1,11 @@
+package org.squiot.bank.operation.data;
+
+import org.squiot.bank.operation.Operation;
+
+import java.util.function.Consumer;
+
+public interface OperationLog {
+    long committedOperations();
+
+    void scanInCreationOrder(long fromOperation, long toOperation, Consumer<Operation> consumer);
+}
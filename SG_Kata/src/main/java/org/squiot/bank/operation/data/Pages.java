@@ -0,0 +1,16 @@
+package org.squiot.bank.operation.data;
+
+final class Pages {
+
+    private Pages() {
+    }
+
+    static long firstIndex(int page, int pageSize) {
+        if (page < 0)
+            throw new IllegalArgumentException("Page shouldn't be negative.");
+        if (pageSize <= 0)
+            throw new IllegalArgumentException("Page size should be positive.");
+
+        return (long) page * pageSize;
+    }
+}
@@ -0,0 +1,14 @@
+package org.squiot.bank.operation.data.journal;
+
+import org.squiot.bank.operation.Operation;
+
+record AccountTail(Operation lastOperation, long offset, long count) {
+
+    AccountTail next(Operation operation, long operationOffset) {
+        return new AccountTail(operation, operationOffset, count + 1);
+    }
+
+    static AccountTail first(Operation operation, long operationOffset) {
+        return new AccountTail(operation, operationOffset, 1);
+    }
+}
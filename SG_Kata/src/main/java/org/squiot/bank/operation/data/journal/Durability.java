@@ -0,0 +1,7 @@
+package org.squiot.bank.operation.data.journal;
+
+public enum Durability {
+    BUFFERED,
+    FSYNC,
+    FSYNC_METADATA
+}
@@ -0,0 +1,465 @@
+package org.squiot.bank.operation.data.journal;
+
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.data.BackLinkedHistory;
+import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.operation.data.OperationLog;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+public class JournalOperationDAO implements OperationDAO, OperationLog, Closeable {
+
+    private static final int MAX_GROUP_SIZE = 4096;
+    private static final int MAX_GROUP_RECORDS = 1 << 20;
+    private static final int SCAN_BUFFER_RECORDS = 16384;
+    private static final PendingWrite CLOSE = new PendingWrite(List.of(), new CompletableFuture<>());
+
+    private static final System.Logger LOGGER = System.getLogger(JournalOperationDAO.class.getName());
+
+    private final FileChannel channel;
+    private final Path snapshotFile;
+    private final Durability durability;
+    private final ConcurrentMap<UUID, AccountTail> tails = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingWrite> pendingWrites = new LinkedBlockingQueue<>();
+    private final Thread committer;
+
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+    private final Object publishLock = new Object();
+    private final Object snapshotLock = new Object();
+
+    private ByteBuffer groupBuffer = ByteBuffer.allocateDirect(MAX_GROUP_SIZE * JournalRecord.SIZE);
+    private long endOffset;
+    private long syncedOffset;
+    private boolean closed;
+    private volatile Throwable failure;
+    private ScheduledExecutorService snapshotScheduler;
+
+    public JournalOperationDAO(Path journalFile, Durability durability) throws IOException {
+        this(journalFile, durability, Runtime.getRuntime().availableProcessors());
+    }
+
+    public JournalOperationDAO(Path journalFile, Durability durability, int replayPartitions) throws IOException {
+        if (replayPartitions <= 0)
+            throw new IllegalArgumentException("Replay partitions count should be positive.");
+
+        this.channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.snapshotFile = journalFile.resolveSibling(journalFile.getFileName() + ".snapshot");
+        this.durability = durability;
+        try {
+            this.endOffset = recover(replayPartitions);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        this.committer = new Thread(this::commitLoop, "journal-committer-" + journalFile.getFileName());
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountId(UUID accountId) {
+        final AccountTail tail = tails.get(accountId);
+        if (tail == null)
+            return Optional.empty();
+
+        return Optional.of(tail.lastOperation());
+    }
+
+    @Override
+    public List<Operation> findAllSortedOperationsByAccountId(UUID accountId) {
+        return findSortedOperationsByAccountIdFrom(accountId, 0);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final AccountTail tail = tails.get(accountId);
+        if (tail == null)
+            return List.of();
+
+        final Operation[] operations = new Operation[Math.toIntExact(Math.max(0, tail.count() - fromIndex))];
+        final RecordLinks links = new RecordLinks(accountId);
+        long offset = tail.offset();
+        for (int index = operations.length - 1; index >= 0; index--) {
+            operations[index] = links.read(offset);
+            offset = links.previous(offset);
+        }
+        return Arrays.asList(operations);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountId(UUID accountId) {
+        return streamSortedOperationsByAccountIdFrom(accountId, 0);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final AccountTail tail = tails.get(accountId);
+        if (tail == null)
+            return Stream.empty();
+
+        return BackLinkedHistory.stream(new RecordLinks(accountId), tail.offset(), tail.count(), fromIndex);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        final AccountTail tail = tails.get(accountId);
+        if (tail == null)
+            return List.of();
+
+        return BackLinkedHistory.between(new RecordLinks(accountId), tail.offset(), tail.count(), from, to);
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        final AccountTail tail = tails.get(accountId);
+        if (tail == null)
+            return Optional.empty();
+
+        return BackLinkedHistory.lastBefore(new RecordLinks(accountId), tail.offset(), tail.count(), date);
+    }
+
+    @Override
+    public Set<UUID> findAllAccountIds() {
+        return Collections.unmodifiableSet(tails.keySet());
+    }
+
+    @Override
+    public long committedOperations() {
+        synchronized (publishLock) {
+            return endOffset / JournalRecord.SIZE;
+        }
+    }
+
+    @Override
+    public void scanInCreationOrder(long fromOperation, long toOperation, Consumer<Operation> consumer) {
+        if (fromOperation < 0 || fromOperation > toOperation || toOperation > committedOperations())
+            throw new IllegalArgumentException("Operations range [" + fromOperation + ", " + toOperation + ") isn't committed.");
+        if (fromOperation == toOperation)
+            return;
+
+        final long fromOffset = fromOperation * JournalRecord.SIZE;
+        final long toOffset = toOperation * JournalRecord.SIZE;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(SCAN_BUFFER_RECORDS, toOperation - fromOperation) * JournalRecord.SIZE);
+        try {
+            for (long offset = fromOffset; offset < toOffset; offset += buffer.limit()) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), toOffset - offset));
+                while (buffer.hasRemaining()) {
+                    if (channel.read(buffer, offset + buffer.position()) < 0)
+                        throw new IOException("Unexpected end of journal at offset " + (offset + buffer.position()) + ".");
+                }
+                for (int position = 0; position < buffer.limit(); position += JournalRecord.SIZE) {
+                    consumer.accept(JournalRecord.read(buffer, position));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal couldn't be scanned.", e);
+        }
+    }
+
+    @Override
+    public Operation create(Operation operation) {
+        return createAll(List.of(operation)).get(0);
+    }
+
+    @Override
+    public List<Operation> createAll(List<Operation> operations) {
+        if (operations.size() > MAX_GROUP_RECORDS)
+            throw new IllegalArgumentException("A batch can't hold more than " + MAX_GROUP_RECORDS + " operations.");
+        ensureDateOrder(operations);
+
+        final PendingWrite pendingWrite = new PendingWrite(operations, new CompletableFuture<>());
+
+        lifecycleLock.readLock().lock();
+        try {
+            if (closed)
+                throw new IllegalStateException("Journal is closed.");
+            if (failure != null)
+                throw new IllegalStateException("Journal failed, it no longer accepts writes.", failure);
+            pendingWrites.add(pendingWrite);
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+
+        try {
+            pendingWrite.committed().join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause)
+                throw cause;
+            throw e;
+        }
+        return operations;
+    }
+
+    // Histories are walked back by date for range queries, so an account's operations should come in date order.
+    private void ensureDateOrder(List<Operation> operations) {
+        final Map<UUID, LocalDateTime> lastDates = new HashMap<>();
+        for (Operation operation : operations) {
+            final AccountTail tail = operation.accountId() == null ? null : tails.get(operation.accountId());
+            final LocalDateTime lastDate = lastDates.getOrDefault(operation.accountId(), tail == null ? null : tail.lastOperation().date());
+            if (lastDate != null && operation.date().isBefore(lastDate))
+                throw new IllegalArgumentException("Operation is older than the last operation of account " + operation.accountId() + ".");
+            lastDates.put(operation.accountId(), operation.date());
+        }
+    }
+
+    public void snapshot() throws IOException {
+        synchronized (snapshotLock) {
+            final long journalOffset;
+            final Map<UUID, AccountTail> snapshotTails;
+            synchronized (publishLock) {
+                journalOffset = endOffset;
+                snapshotTails = new HashMap<>(tails);
+            }
+
+            channel.force(false);
+            synced(journalOffset);
+            JournalSnapshot.write(snapshotFile, journalOffset, snapshotTails);
+        }
+    }
+
+    public synchronized void scheduleSnapshots(Duration interval) {
+        if (snapshotScheduler != null)
+            throw new IllegalStateException("Snapshots are already scheduled.");
+
+        snapshotScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "journal-snapshot-" + snapshotFile.getFileName());
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotScheduler.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.log(System.Logger.Level.WARNING, "Journal snapshot failed, it will be retried at the next interval.", e);
+            }
+        }, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() throws IOException {
+        lifecycleLock.writeLock().lock();
+        try {
+            if (closed)
+                return;
+            closed = true;
+            pendingWrites.add(CLOSE);
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+
+        try {
+            synchronized (this) {
+                if (snapshotScheduler != null) {
+                    snapshotScheduler.shutdown();
+                    snapshotScheduler.awaitTermination(1, TimeUnit.MINUTES);
+                }
+            }
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        channel.force(true);
+        channel.close();
+    }
+
+    private void commitLoop() {
+        final List<PendingWrite> group = new ArrayList<>(MAX_GROUP_SIZE);
+
+        boolean closing = false;
+
+        while (!closing) {
+            try {
+                group.add(pendingWrites.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            pendingWrites.drainTo(group, MAX_GROUP_SIZE - group.size());
+
+            closing = group.get(group.size() - 1) == CLOSE;
+            if (closing)
+                group.remove(group.size() - 1);
+            commitInSlices(group);
+            group.clear();
+        }
+    }
+
+    private void commitInSlices(List<PendingWrite> group) {
+        int from = 0;
+        while (from < group.size()) {
+            int to = from;
+            long records = 0;
+            while (to < group.size() && (to == from || records + group.get(to).operations().size() <= MAX_GROUP_RECORDS)) {
+                records += group.get(to).operations().size();
+                to++;
+            }
+
+            final List<PendingWrite> slice = group.subList(from, to);
+            if (failure != null) {
+                failAll(slice, failure);
+            } else {
+                try {
+                    commit(slice, (int) records);
+                } catch (IOException | RuntimeException | Error e) {
+                    failure = e;
+                    LOGGER.log(System.Logger.Level.ERROR, "Journal commit failed, the journal no longer accepts writes.", e);
+                    failAll(slice, e);
+                }
+            }
+            from = to;
+        }
+    }
+
+    private static void failAll(List<PendingWrite> group, Throwable cause) {
+        final RuntimeException failure = cause instanceof IOException ioException
+                ? new UncheckedIOException("Operations couldn't be written to the journal.", ioException)
+                : new IllegalStateException("Operations couldn't be written to the journal.", cause);
+        group.forEach(pendingWrite -> pendingWrite.committed().completeExceptionally(failure));
+    }
+
+    private void commit(List<PendingWrite> group, int records) throws IOException {
+        final Map<UUID, AccountTail> updatedTails = new HashMap<>();
+        final ByteBuffer buffer = groupBuffer(records);
+        final long recordsSyncedOffset;
+        synchronized (publishLock) {
+            recordsSyncedOffset = syncedOffset;
+        }
+        long offset = endOffset;
+
+        buffer.clear();
+        for (PendingWrite pendingWrite : group) {
+            for (Operation operation : pendingWrite.operations()) {
+                final AccountTail tail = updatedTails.containsKey(operation.accountId())
+                        ? updatedTails.get(operation.accountId())
+                        : tails.get(operation.accountId());
+
+                JournalRecord.write(buffer, operation, tail == null ? JournalRecord.NO_PREVIOUS_OFFSET : tail.offset(), recordsSyncedOffset);
+                updatedTails.put(operation.accountId(), tail == null ? AccountTail.first(operation, offset) : tail.next(operation, offset));
+                offset += JournalRecord.SIZE;
+            }
+        }
+        buffer.flip();
+
+        long position = endOffset;
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        switch (durability) {
+            case FSYNC -> channel.force(false);
+            case FSYNC_METADATA -> channel.force(true);
+            case BUFFERED -> { }
+        }
+        if (durability != Durability.BUFFERED)
+            synced(offset);
+
+        synchronized (publishLock) {
+            endOffset = offset;
+            tails.putAll(updatedTails);
+        }
+        group.forEach(pendingWrite -> pendingWrite.committed().complete(null));
+    }
+
+    private void synced(long offset) {
+        synchronized (publishLock) {
+            syncedOffset = Math.max(syncedOffset, offset);
+        }
+    }
+
+    private ByteBuffer groupBuffer(int records) {
+        final long size = (long) records * JournalRecord.SIZE;
+        if (size > groupBuffer.capacity())
+            groupBuffer = ByteBuffer.allocateDirect(Math.toIntExact(size));
+        return groupBuffer;
+    }
+
+    private long recover(int replayPartitions) throws IOException {
+        final long journalSize = channel.size();
+        final Optional<JournalSnapshot> snapshot = JournalSnapshot.read(snapshotFile, journalSize);
+        snapshot.ifPresent(loaded -> tails.putAll(loaded.tails()));
+
+        final long replayOffset = snapshot.map(JournalSnapshot::journalOffset).orElse(0L);
+        final long validOffset = JournalReplay.replay(channel, replayOffset, tails, replayPartitions);
+
+        if (validOffset < journalSize) {
+            LOGGER.log(System.Logger.Level.WARNING, "Truncating the torn tail of the journal from offset " + validOffset + " to " + journalSize + ".");
+            channel.truncate(validOffset);
+            channel.force(true);
+        } else {
+            channel.force(false);
+        }
+        syncedOffset = validOffset;
+        return validOffset;
+    }
+
+    private void readRecord(ByteBuffer buffer, long offset) throws IOException {
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0)
+                throw new IOException("Unexpected end of journal at offset " + offset + ".");
+        }
+    }
+
+    private final class RecordLinks implements BackLinkedHistory.Links {
+
+        private final UUID accountId;
+        private final ByteBuffer buffer = ByteBuffer.allocate(JournalRecord.SIZE);
+        private long bufferedOffset = JournalRecord.NO_PREVIOUS_OFFSET;
+
+        private RecordLinks(UUID accountId) {
+            this.accountId = accountId;
+        }
+
+        @Override
+        public long previous(long offset) {
+            return JournalRecord.previousOffset(recordAt(offset), 0);
+        }
+
+        @Override
+        public Operation read(long offset) {
+            return JournalRecord.read(recordAt(offset), 0);
+        }
+
+        private ByteBuffer recordAt(long offset) {
+            if (offset != bufferedOffset) {
+                try {
+                    readRecord(buffer, offset);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Operations of account " + accountId + " couldn't be read from the journal.", e);
+                }
+                bufferedOffset = offset;
+            }
+            return buffer;
+        }
+    }
+
+    private record PendingWrite(List<Operation> operations, CompletableFuture<Void> committed) { }
+}
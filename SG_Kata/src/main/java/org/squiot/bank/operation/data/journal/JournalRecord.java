@@ -0,0 +1,96 @@
+package org.squiot.bank.operation.data.journal;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.zip.CRC32C;
+
+final class JournalRecord {
+
+    static final int SIZE = 64;
+    static final long NO_PREVIOUS_OFFSET = -1;
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+
+    private static final int CHECKSUM = 0;
+    private static final int PREVIOUS_OFFSET = 4;
+    private static final int OPERATION_TYPE = 12;
+    private static final int ACCOUNT_MOST_SIGNIFICANT_BITS = 13;
+    private static final int ACCOUNT_LEAST_SIGNIFICANT_BITS = 21;
+    private static final int AMOUNT = 29;
+    private static final int EPOCH_SECOND = 37;
+    private static final int NANO = 45;
+    private static final int BALANCE = 49;
+    private static final int SYNCED_OFFSET = 57;
+    private static final int SYNCED_OFFSET_BYTES = SIZE - SYNCED_OFFSET;
+
+    private JournalRecord() {
+    }
+
+    // The synced offset is the journal length known to be on disk when the record was written, kept on the 7 remaining bytes.
+    static void write(ByteBuffer buffer, Operation operation, long previousOffset, long syncedOffset) {
+        final int start = buffer.position();
+        final LocalDateTime date = operation.date();
+
+        buffer.putLong(start + PREVIOUS_OFFSET, previousOffset)
+                .put(start + OPERATION_TYPE, (byte) operation.operationType().ordinal())
+                .putLong(start + ACCOUNT_MOST_SIGNIFICANT_BITS, operation.accountId().getMostSignificantBits())
+                .putLong(start + ACCOUNT_LEAST_SIGNIFICANT_BITS, operation.accountId().getLeastSignificantBits())
+                .putLong(start + AMOUNT, operation.amount().minorUnits())
+                .putLong(start + EPOCH_SECOND, date.toEpochSecond(ZoneOffset.UTC))
+                .putInt(start + NANO, date.getNano())
+                .putLong(start + BALANCE, operation.balance().minorUnits());
+        for (int shift = 0; shift < SYNCED_OFFSET_BYTES; shift++) {
+            buffer.put(start + SYNCED_OFFSET + shift, (byte) (syncedOffset >>> (Byte.SIZE * shift)));
+        }
+        buffer.putInt(start + CHECKSUM, checksum(buffer, start));
+        buffer.position(start + SIZE);
+    }
+
+    static boolean isValid(ByteBuffer buffer, int start) {
+        final int operationType = buffer.get(start + OPERATION_TYPE);
+        return buffer.getInt(start + CHECKSUM) == checksum(buffer, start)
+                && operationType >= 0 && operationType < OPERATION_TYPES.length;
+    }
+
+    static OperationType operationType(ByteBuffer buffer, int start) {
+        return OPERATION_TYPES[buffer.get(start + OPERATION_TYPE)];
+    }
+
+    static long previousOffset(ByteBuffer buffer, int start) {
+        return buffer.getLong(start + PREVIOUS_OFFSET);
+    }
+
+    static long syncedOffset(ByteBuffer buffer, int start) {
+        long syncedOffset = 0;
+        for (int shift = 0; shift < SYNCED_OFFSET_BYTES; shift++) {
+            syncedOffset |= (buffer.get(start + SYNCED_OFFSET + shift) & 0xFFL) << (Byte.SIZE * shift);
+        }
+        return syncedOffset;
+    }
+
+    static UUID accountId(ByteBuffer buffer, int start) {
+        return new UUID(buffer.getLong(start + ACCOUNT_MOST_SIGNIFICANT_BITS), buffer.getLong(start + ACCOUNT_LEAST_SIGNIFICANT_BITS));
+    }
+
+    static Operation read(ByteBuffer buffer, int start) {
+        return new Operation(
+                operationType(buffer, start),
+                accountId(buffer, start),
+                Amount.ofMinorUnits(buffer.getLong(start + AMOUNT)),
+                LocalDateTime.ofEpochSecond(buffer.getLong(start + EPOCH_SECOND), buffer.getInt(start + NANO), ZoneOffset.UTC),
+                Amount.ofMinorUnits(buffer.getLong(start + BALANCE))
+        );
+    }
+
+    private static int checksum(ByteBuffer buffer, int start) {
+        final CRC32C crc = new CRC32C();
+        crc.update(buffer.slice(start + PREVIOUS_OFFSET, SIZE - PREVIOUS_OFFSET));
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,165 @@
+package org.squiot.bank.operation.data.journal;
+
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+final class JournalReplay {
+
+    private static final long SEGMENT_SIZE = (1L << 30) / JournalRecord.SIZE * JournalRecord.SIZE;
+
+    private static final System.Logger LOGGER = System.getLogger(JournalReplay.class.getName());
+
+    private final List<ByteBuffer> segments = new ArrayList<>();
+    private final long fromOffset;
+    private final long records;
+    private final int partitions;
+    private final long recordsPerPartition;
+    private final ForkJoinPool pool;
+
+    private JournalReplay(FileChannel channel, long fromOffset, int partitions) throws IOException {
+        this.fromOffset = fromOffset;
+        this.records = (channel.size() - fromOffset) / JournalRecord.SIZE;
+        this.partitions = partitions;
+        this.recordsPerPartition = (records + partitions - 1) / partitions;
+        this.pool = new ForkJoinPool(partitions);
+
+        final long length = records * JournalRecord.SIZE;
+        for (long position = 0; position < length; position += SEGMENT_SIZE) {
+            segments.add(channel.map(FileChannel.MapMode.READ_ONLY, fromOffset + position, Math.min(SEGMENT_SIZE, length - position)));
+        }
+    }
+
+    static long replay(FileChannel channel, long fromOffset, ConcurrentMap<UUID, AccountTail> tails, int partitions) throws IOException {
+        final JournalReplay replay = new JournalReplay(channel, fromOffset, partitions);
+        try {
+            final long validRecords = replay.withoutTornTransfer(replay.ensureTornTailOnly(replay.countValidRecords()));
+            replay.applyRecords(validRecords, tails);
+            return fromOffset + validRecords * JournalRecord.SIZE;
+        } finally {
+            replay.pool.shutdown();
+        }
+    }
+
+    private long countValidRecords() {
+        long validRecords = records;
+        for (long firstInvalidRecord : inPartitions(partition -> {
+            final long to = partitionEnd(partition, records);
+            for (long record = partitionStart(partition, records); record < to; record++) {
+                if (!JournalRecord.isValid(segment(record), positionInSegment(record)))
+                    return record;
+            }
+            return records;
+        })) {
+            validRecords = Math.min(validRecords, firstInvalidRecord);
+        }
+        return validRecords;
+    }
+
+    // A record written after the invalid one had been synced proves the invalid one is corrupted, not torn:
+    // below that point it would have been on disk, whereas unsynced pages of the last groups may reach it out of order.
+    private long ensureTornTailOnly(long validRecords) throws IOException {
+        final long invalidOffset = offsetOf(validRecords);
+        for (long record = validRecords + 1; record < records; record++) {
+            if (JournalRecord.isValid(segment(record), positionInSegment(record))
+                    && JournalRecord.syncedOffset(segment(record), positionInSegment(record)) > invalidOffset) {
+                final String message = "Journal is corrupted: invalid record at offset " + invalidOffset
+                        + " was synced before the record at offset " + offsetOf(record) + " was written.";
+                LOGGER.log(System.Logger.Level.ERROR, message);
+                throw new IOException(message);
+            }
+        }
+        return validRecords;
+    }
+
+    private long withoutTornTransfer(long validRecords) {
+        if (validRecords == 0)
+            return 0;
+
+        final long lastRecord = validRecords - 1;
+        if (JournalRecord.operationType(segment(lastRecord), positionInSegment(lastRecord)) == OperationType.TRANSFER_OUT)
+            return lastRecord;
+        return validRecords;
+    }
+
+    // Each partition indexes a contiguous range of the file, then the ranges are merged in file order, so every record is read once.
+    private void applyRecords(long validRecords, ConcurrentMap<UUID, AccountTail> tails) {
+        final Map<UUID, RangeTail> merged = new HashMap<>();
+        for (Map<UUID, RangeTail> rangeTails : inPartitions(partition -> indexRange(partition, validRecords))) {
+            rangeTails.forEach((accountId, rangeTail) -> merged.merge(accountId, rangeTail, RangeTail::followedBy));
+        }
+
+        merged.forEach((accountId, rangeTail) -> {
+            final long record = (rangeTail.offset() - fromOffset) / JournalRecord.SIZE;
+            final Operation operation = JournalRecord.read(segment(record), positionInSegment(record));
+            final AccountTail tail = tails.get(accountId);
+            final long count = (tail == null ? 0 : tail.count()) + rangeTail.count();
+            tails.put(accountId, new AccountTail(operation, rangeTail.offset(), count));
+        });
+    }
+
+    private Map<UUID, RangeTail> indexRange(int partition, long validRecords) {
+        final Map<UUID, RangeTail> rangeTails = new HashMap<>();
+        final long to = partitionEnd(partition, validRecords);
+        for (long record = partitionStart(partition, validRecords); record < to; record++) {
+            final long offset = offsetOf(record);
+            final UUID accountId = JournalRecord.accountId(segment(record), positionInSegment(record));
+            final RangeTail rangeTail = rangeTails.get(accountId);
+            rangeTails.put(accountId, new RangeTail(offset, rangeTail == null ? 1 : rangeTail.count() + 1));
+        }
+        return rangeTails;
+    }
+
+    private <T> List<T> inPartitions(IntFunction<T> work) {
+        final List<ForkJoinTask<T>> tasks = new ArrayList<>(partitions);
+        for (int partition = 0; partition < partitions; partition++) {
+            final int current = partition;
+            tasks.add(pool.submit(() -> work.apply(current)));
+        }
+
+        final List<T> results = new ArrayList<>(partitions);
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    private long partitionStart(int partition, long limit) {
+        return Math.min(limit, partition * recordsPerPartition);
+    }
+
+    private long partitionEnd(int partition, long limit) {
+        return Math.min(limit, (partition + 1) * recordsPerPartition);
+    }
+
+    private long offsetOf(long record) {
+        return fromOffset + record * JournalRecord.SIZE;
+    }
+
+    private ByteBuffer segment(long record) {
+        return segments.get((int) (record * JournalRecord.SIZE / SEGMENT_SIZE));
+    }
+
+    private static int positionInSegment(long record) {
+        return (int) (record * JournalRecord.SIZE % SEGMENT_SIZE);
+    }
+
+    private record RangeTail(long offset, long count) {
+
+        private RangeTail followedBy(RangeTail next) {
+            return new RangeTail(next.offset, count + next.count);
+        }
+    }
+}
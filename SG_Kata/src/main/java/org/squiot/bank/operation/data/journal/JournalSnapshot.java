@@ -0,0 +1,84 @@
+package org.squiot.bank.operation.data.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32C;
+
+record JournalSnapshot(long journalOffset, ConcurrentMap<UUID, AccountTail> tails) {
+
+    private static final long MAGIC = 0x534E41505348_4F54L;
+    private static final int HEADER_SIZE = Long.BYTES + Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int ENTRY_SIZE = Long.BYTES + Long.BYTES + JournalRecord.SIZE;
+
+    static void write(Path snapshotFile, long journalOffset, Map<UUID, AccountTail> tails) throws IOException {
+        final ByteBuffer body = ByteBuffer.allocate(Math.multiplyExact(tails.size(), ENTRY_SIZE));
+        for (AccountTail tail : tails.values()) {
+            body.putLong(tail.offset()).putLong(tail.count());
+            JournalRecord.write(body, tail.lastOperation(), JournalRecord.NO_PREVIOUS_OFFSET, 0);
+        }
+        body.flip();
+
+        final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                .putLong(MAGIC)
+                .putLong(journalOffset)
+                .putInt(tails.size())
+                .putInt(checksum(body))
+                .flip();
+
+        final Path temporaryFile = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryFile, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            final ByteBuffer[] buffers = {header, body};
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(buffers);
+            }
+            channel.force(true);
+        }
+        Files.move(temporaryFile, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    static Optional<JournalSnapshot> read(Path snapshotFile, long journalSize) throws IOException {
+        if (!Files.exists(snapshotFile) || Files.size(snapshotFile) < HEADER_SIZE)
+            return Optional.empty();
+
+        final ByteBuffer content = ByteBuffer.wrap(Files.readAllBytes(snapshotFile));
+        final long magic = content.getLong();
+        final long journalOffset = content.getLong();
+        final int accounts = content.getInt();
+        final int checksum = content.getInt();
+
+        if (magic != MAGIC || journalOffset > journalSize || content.remaining() != (long) accounts * ENTRY_SIZE
+                || checksum != checksum(content.duplicate()))
+            return Optional.empty();
+
+        final ConcurrentMap<UUID, AccountTail> tails = new ConcurrentHashMap<>(accounts * 2);
+        for (int account = 0; account < accounts; account++) {
+            final int start = content.position();
+            final long offset = content.getLong(start);
+            final long count = content.getLong(start + Long.BYTES);
+            final int record = start + 2 * Long.BYTES;
+            if (!JournalRecord.isValid(content, record))
+                return Optional.empty();
+
+            final AccountTail tail = new AccountTail(JournalRecord.read(content, record), offset, count);
+            tails.put(tail.lastOperation().accountId(), tail);
+            content.position(start + ENTRY_SIZE);
+        }
+        return Optional.of(new JournalSnapshot(journalOffset, tails));
+    }
+
+    private static int checksum(ByteBuffer body) {
+        final CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,27 @@
+package org.squiot.bank.operation.data.offheap;
+
+import java.time.LocalDateTime;
+
+final class AccountSlots {
+
+    private final int index;
+    private volatile Tail tail = new Tail(OperationSlots.NO_SLOT, 0, null);
+
+    AccountSlots(int index) {
+        this.index = index;
+    }
+
+    int index() {
+        return index;
+    }
+
+    Tail tail() {
+        return tail;
+    }
+
+    void publish(Tail tail) {
+        this.tail = tail;
+    }
+
+    record Tail(long slot, int count, LocalDateTime lastDate) { }
+}
@@ -0,0 +1,197 @@
+package org.squiot.bank.operation.data.offheap;
+
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.data.BackLinkedHistory;
+import org.squiot.bank.operation.data.OperationDAO;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+public class OffHeapOperationDAO implements OperationDAO {
+
+    public static final int DEFAULT_SLOTS_PER_SEGMENT = 1 << 20;
+
+    private final OperationSlots slots;
+    private final ConcurrentMap<UUID, AccountSlots> accounts = new ConcurrentHashMap<>();
+    private final AtomicInteger nextAccountIndex = new AtomicInteger();
+
+    public OffHeapOperationDAO() {
+        this(DEFAULT_SLOTS_PER_SEGMENT);
+    }
+
+    public OffHeapOperationDAO(int slotsPerSegment) {
+        this.slots = new OperationSlots(validated(slotsPerSegment),
+                segmentIndex -> ByteBuffer.allocateDirect(slotsPerSegment * OperationSlots.SLOT_SIZE).order(ByteOrder.nativeOrder()));
+    }
+
+    public static OffHeapOperationDAO mapped(Path directory, int slotsPerSegment) {
+        validated(slotsPerSegment);
+        if (Files.exists(directory.resolve(segmentFileName(0))))
+            throw new IllegalArgumentException("Directory " + directory + " already holds segments: mapped segments aren't reloaded, use an empty directory.");
+
+        return new OffHeapOperationDAO(new OperationSlots(slotsPerSegment, segmentIndex -> {
+            final Path segmentFile = directory.resolve(segmentFileName(segmentIndex));
+            try (FileChannel channel = FileChannel.open(segmentFile, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) slotsPerSegment * OperationSlots.SLOT_SIZE)
+                        .order(ByteOrder.nativeOrder());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Segment " + segmentFile + " couldn't be mapped.", e);
+            }
+        }));
+    }
+
+    private OffHeapOperationDAO(OperationSlots slots) {
+        this.slots = slots;
+    }
+
+    private static int validated(int slotsPerSegment) {
+        if (slotsPerSegment <= 0 || (long) slotsPerSegment * OperationSlots.SLOT_SIZE > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Slots per segment should be positive and fit a segment of at most 2 GiB.");
+        return slotsPerSegment;
+    }
+
+    private static String segmentFileName(int segmentIndex) {
+        return "operations-%05d.seg".formatted(segmentIndex);
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountId(UUID accountId) {
+        final AccountSlots account = accounts.get(accountId);
+        if (account == null)
+            return Optional.empty();
+
+        final AccountSlots.Tail tail = account.tail();
+        if (tail.count() == 0)
+            return Optional.empty();
+
+        return Optional.of(slots.read(tail.slot(), accountId));
+    }
+
+    @Override
+    public List<Operation> findAllSortedOperationsByAccountId(UUID accountId) {
+        final AccountSlots account = accounts.get(accountId);
+        if (account == null)
+            return List.of();
+
+        return readLastOperations(accountId, account.tail(), 0);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final AccountSlots account = accounts.get(accountId);
+        if (account == null)
+            return List.of();
+
+        return readLastOperations(accountId, account.tail(), fromIndex);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountId(UUID accountId) {
+        return streamSortedOperationsByAccountIdFrom(accountId, 0);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        final AccountSlots account = accounts.get(accountId);
+        if (account == null)
+            return Stream.empty();
+
+        final AccountSlots.Tail tail = account.tail();
+        return BackLinkedHistory.stream(new SlotLinks(accountId), tail.slot(), tail.count(), fromIndex);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        final AccountSlots account = accounts.get(accountId);
+        if (account == null)
+            return List.of();
+
+        final AccountSlots.Tail tail = account.tail();
+        return BackLinkedHistory.between(new SlotLinks(accountId), tail.slot(), tail.count(), from, to);
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        final AccountSlots account = accounts.get(accountId);
+        if (account == null)
+            return Optional.empty();
+
+        final AccountSlots.Tail tail = account.tail();
+        return BackLinkedHistory.lastBefore(new SlotLinks(accountId), tail.slot(), tail.count(), date);
+    }
+
+    @Override
+    public Set<UUID> findAllAccountIds() {
+        return Collections.unmodifiableSet(accounts.keySet());
+    }
+
+    @Override
+    public Operation create(Operation operation) {
+        final AccountSlots account = accounts.computeIfAbsent(operation.accountId(),
+                accountId -> new AccountSlots(nextAccountIndex.getAndIncrement()));
+
+        synchronized (account) {
+            final AccountSlots.Tail tail = account.tail();
+            if (tail.lastDate() != null && operation.date().isBefore(tail.lastDate()))
+                throw new IllegalArgumentException("Operation is older than the last operation of account " + operation.accountId() + ".");
+
+            final long slot = slots.append(account.index(), tail.slot(), operation);
+            account.publish(new AccountSlots.Tail(slot, tail.count() + 1, operation.date()));
+        }
+        return operation;
+    }
+
+    public long usedSlots() {
+        return slots.usedSlots();
+    }
+
+    public long reservedBytes() {
+        return slots.reservedBytes();
+    }
+
+    private List<Operation> readLastOperations(UUID accountId, AccountSlots.Tail tail, int fromIndex) {
+        final Operation[] operations = new Operation[Math.max(0, tail.count() - fromIndex)];
+        long slot = tail.slot();
+        for (int index = operations.length - 1; index >= 0; index--) {
+            operations[index] = slots.read(slot, accountId);
+            slot = slots.previousSlot(slot);
+        }
+        return Arrays.asList(operations);
+    }
+
+    private final class SlotLinks implements BackLinkedHistory.Links {
+
+        private final UUID accountId;
+
+        private SlotLinks(UUID accountId) {
+            this.accountId = accountId;
+        }
+
+        @Override
+        public long previous(long slot) {
+            return slots.previousSlot(slot);
+        }
+
+        @Override
+        public Operation read(long slot) {
+            return slots.read(slot, accountId);
+        }
+    }
+}
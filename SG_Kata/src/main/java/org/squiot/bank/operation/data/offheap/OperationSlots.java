@@ -0,0 +1,109 @@
+package org.squiot.bank.operation.data.offheap;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+final class OperationSlots {
+
+    static final int SLOT_SIZE = 40;
+    static final long NO_SLOT = -1;
+
+    private static final OperationType[] OPERATION_TYPES = OperationType.values();
+    private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+    private static final int ACCOUNT_INDEX = 0;
+    private static final int OPERATION_TYPE = 4;
+    private static final int PREVIOUS_SLOT = 8;
+    private static final int AMOUNT = 16;
+    private static final int BALANCE = 24;
+    private static final int EPOCH_NANOS = 32;
+
+    private final int slotsPerSegment;
+    private final IntFunction<ByteBuffer> segmentAllocator;
+    private final AtomicLong nextSlot = new AtomicLong();
+    private volatile ByteBuffer[] segments = new ByteBuffer[0];
+
+    OperationSlots(int slotsPerSegment, IntFunction<ByteBuffer> segmentAllocator) {
+        this.slotsPerSegment = slotsPerSegment;
+        this.segmentAllocator = segmentAllocator;
+    }
+
+    long append(int accountIndex, long previousSlot, Operation operation) {
+        final LocalDateTime date = operation.date();
+        final long epochNanos = Math.addExact(Math.multiplyExact(date.toEpochSecond(ZoneOffset.UTC), NANOS_PER_SECOND), date.getNano());
+        final long slot = nextSlot.getAndIncrement();
+        final ByteBuffer segment = segmentFor(slot);
+        final int start = positionOf(slot);
+
+        segment.putInt(start + ACCOUNT_INDEX, accountIndex)
+                .put(start + OPERATION_TYPE, (byte) operation.operationType().ordinal())
+                .putLong(start + PREVIOUS_SLOT, previousSlot)
+                .putLong(start + AMOUNT, operation.amount().minorUnits())
+                .putLong(start + BALANCE, operation.balance().minorUnits())
+                .putLong(start + EPOCH_NANOS, epochNanos);
+        return slot;
+    }
+
+    Operation read(long slot, UUID accountId) {
+        final ByteBuffer segment = segments[segmentIndex(slot)];
+        final int start = positionOf(slot);
+        final long epochNanos = segment.getLong(start + EPOCH_NANOS);
+
+        return new Operation(
+                OPERATION_TYPES[segment.get(start + OPERATION_TYPE)],
+                accountId,
+                Amount.ofMinorUnits(segment.getLong(start + AMOUNT)),
+                LocalDateTime.ofEpochSecond(Math.floorDiv(epochNanos, NANOS_PER_SECOND), (int) Math.floorMod(epochNanos, NANOS_PER_SECOND), ZoneOffset.UTC),
+                Amount.ofMinorUnits(segment.getLong(start + BALANCE))
+        );
+    }
+
+    long previousSlot(long slot) {
+        return segments[segmentIndex(slot)].getLong(positionOf(slot) + PREVIOUS_SLOT);
+    }
+
+    long usedSlots() {
+        return nextSlot.get();
+    }
+
+    long reservedBytes() {
+        return (long) segments.length * slotsPerSegment * SLOT_SIZE;
+    }
+
+    private ByteBuffer segmentFor(long slot) {
+        final int segmentIndex = segmentIndex(slot);
+        ByteBuffer[] current = segments;
+        if (segmentIndex < current.length)
+            return current[segmentIndex];
+
+        synchronized (this) {
+            current = segments;
+            if (segmentIndex >= current.length) {
+                final ByteBuffer[] grown = Arrays.copyOf(current, segmentIndex + 1);
+                for (int index = current.length; index <= segmentIndex; index++) {
+                    grown[index] = segmentAllocator.apply(index);
+                }
+                segments = grown;
+                current = grown;
+            }
+            return current[segmentIndex];
+        }
+    }
+
+    private int segmentIndex(long slot) {
+        return Math.toIntExact(slot / slotsPerSegment);
+    }
+
+    private int positionOf(long slot) {
+        return (int) (slot % slotsPerSegment) * SLOT_SIZE;
+    }
+}
@@ -0,0 +1,50 @@
+package org.squiot.bank.operation.data.rollup;
+
+import org.squiot.bank.account.PeriodRollup;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+class AccountRollups {
+
+    private final Map<RollupPeriod, List<PeriodRollup>> rollups = new EnumMap<>(RollupPeriod.class);
+
+    AccountRollups() {
+        for (RollupPeriod period : RollupPeriod.values()) {
+            rollups.put(period, new ArrayList<>());
+        }
+    }
+
+    synchronized void apply(Operation operation) {
+        rollups.forEach((period, periodRollups) -> PeriodRollup.accumulate(periodRollups, period, operation));
+    }
+
+    synchronized List<PeriodRollup> between(RollupPeriod period, LocalDate from, LocalDate to) {
+        final List<PeriodRollup> periodRollups = rollups.get(period);
+        final int fromIndex = firstIndexAtOrAfter(periodRollups, period.startOf(from.atStartOfDay()));
+        final int toIndex = firstIndexAtOrAfter(periodRollups, to);
+        return List.copyOf(periodRollups.subList(fromIndex, Math.max(fromIndex, toIndex)));
+    }
+
+    synchronized List<PeriodRollup> all(RollupPeriod period) {
+        return List.copyOf(rollups.get(period));
+    }
+
+    private static int firstIndexAtOrAfter(List<PeriodRollup> periodRollups, LocalDate start) {
+        int low = 0;
+        int high = periodRollups.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (periodRollups.get(middle).start().isBefore(start))
+                low = middle + 1;
+            else
+                high = middle;
+        }
+        return low;
+    }
+}
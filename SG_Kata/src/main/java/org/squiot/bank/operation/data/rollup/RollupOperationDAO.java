@@ -0,0 +1,122 @@
+package org.squiot.bank.operation.data.rollup;
+
+import org.squiot.bank.account.PeriodRollup;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.data.OperationDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+
+public class RollupOperationDAO implements OperationDAO {
+
+    private final OperationDAO operationDAO;
+    private final ConcurrentMap<UUID, AccountRollups> rollups = new ConcurrentHashMap<>();
+
+    public RollupOperationDAO(OperationDAO operationDAO) {
+        this.operationDAO = operationDAO;
+    }
+
+    public List<PeriodRollup> findRollupsByAccountId(UUID accountId, RollupPeriod period) {
+        return rollupsOf(accountId).all(period);
+    }
+
+    public List<PeriodRollup> findRollupsByAccountIdBetween(UUID accountId, RollupPeriod period, LocalDate from, LocalDate to) {
+        return rollupsOf(accountId).between(period, from, to);
+    }
+
+    @Override
+    public Operation create(Operation operation) {
+        final AccountRollups accountRollups = rollupsOf(operation.accountId());
+        final Operation created = operationDAO.create(operation);
+        accountRollups.apply(created);
+        return created;
+    }
+
+    @Override
+    public List<Operation> createAll(List<Operation> operations) {
+        for (Operation operation : operations) {
+            rollupsOf(operation.accountId());
+        }
+        final List<Operation> created = operationDAO.createAll(operations);
+        for (Operation operation : created) {
+            rollups.get(operation.accountId()).apply(operation);
+        }
+        return created;
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountId(UUID accountId) {
+        return operationDAO.findLastOperationByAccountId(accountId);
+    }
+
+    @Override
+    public List<Operation> findAllSortedOperationsByAccountId(UUID accountId) {
+        return operationDAO.findAllSortedOperationsByAccountId(accountId);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountId(UUID accountId) {
+        return operationDAO.streamSortedOperationsByAccountId(accountId);
+    }
+
+    @Override
+    public Stream<Operation> streamSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        return operationDAO.streamSortedOperationsByAccountIdFrom(accountId, fromIndex);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdBetween(UUID accountId, LocalDateTime from, LocalDateTime to) {
+        return operationDAO.findSortedOperationsByAccountIdBetween(accountId, from, to);
+    }
+
+    @Override
+    public Optional<Operation> findLastOperationByAccountIdBefore(UUID accountId, LocalDateTime date) {
+        return operationDAO.findLastOperationByAccountIdBefore(accountId, date);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountId(UUID accountId, int page, int pageSize) {
+        return operationDAO.findSortedOperationsByAccountId(accountId, page, pageSize);
+    }
+
+    @Override
+    public List<Operation> findSortedOperationsByAccountIdFrom(UUID accountId, int fromIndex) {
+        return operationDAO.findSortedOperationsByAccountIdFrom(accountId, fromIndex);
+    }
+
+    @Override
+    public Map<UUID, Operation> findLastOperationsByAccountIds(Collection<UUID> accountIds) {
+        return operationDAO.findLastOperationsByAccountIds(accountIds);
+    }
+
+    @Override
+    public Set<UUID> findAllAccountIds() {
+        return operationDAO.findAllAccountIds();
+    }
+
+    private AccountRollups rollupsOf(UUID accountId) {
+        final AccountRollups accountRollups = rollups.get(accountId);
+        if (accountRollups != null)
+            return accountRollups;
+
+        return rollups.computeIfAbsent(accountId, this::loadRollups);
+    }
+
+    private AccountRollups loadRollups(UUID accountId) {
+        final AccountRollups accountRollups = new AccountRollups();
+        try (Stream<Operation> operations = operationDAO.streamSortedOperationsByAccountId(accountId)) {
+            operations.forEach(accountRollups::apply);
+        }
+        return accountRollups;
+    }
+}
@@ -0,0 +1,8 @@
+package org.squiot.bank.operation.reconciliation;
+
+import org.squiot.bank.amount.Amount;
+
+public record AccountCheckpoint(int verifiedOperations, Amount balance) {
+
+    public static final AccountCheckpoint START = new AccountCheckpoint(0, Amount.ZERO);
+}
@@ -0,0 +1,8 @@
+package org.squiot.bank.operation.reconciliation;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+
+import java.util.UUID;
+
+public record BrokenLink(BrokenLinkType type, UUID accountId, int index, Operation operation, Amount expectedBalance) { }
@@ -0,0 +1,7 @@
+package org.squiot.bank.operation.reconciliation;
+
+public enum BrokenLinkType {
+    BALANCE_MISMATCH,
+    NEGATIVE_BALANCE,
+    CHECKPOINT_MISMATCH
+}
@@ -0,0 +1,70 @@
+package org.squiot.bank.operation.reconciliation;
+
+import org.squiot.bank.amount.Amount;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+// logOffset counts the operations of an OperationLog already verified, 0 when the checkpoint wasn't built from a log scan.
+public record ReconciliationCheckpoint(Map<UUID, AccountCheckpoint> accounts, long logOffset) {
+
+    private static final ReconciliationCheckpoint EMPTY = new ReconciliationCheckpoint(Map.of());
+
+    public ReconciliationCheckpoint {
+        if (logOffset < 0)
+            throw new IllegalArgumentException("Log offset shouldn't be negative.");
+
+        accounts = Map.copyOf(accounts);
+    }
+
+    public ReconciliationCheckpoint(Map<UUID, AccountCheckpoint> accounts) {
+        this(accounts, 0);
+    }
+
+    public static ReconciliationCheckpoint empty() {
+        return EMPTY;
+    }
+
+    public AccountCheckpoint of(UUID accountId) {
+        return accounts.getOrDefault(accountId, AccountCheckpoint.START);
+    }
+
+    public long verifiedOperations() {
+        long verifiedOperations = 0;
+        for (AccountCheckpoint account : accounts.values()) {
+            verifiedOperations += account.verifiedOperations();
+        }
+        return verifiedOperations;
+    }
+
+    public void writeTo(OutputStream outputStream) throws IOException {
+        final DataOutputStream output = new DataOutputStream(outputStream);
+        output.writeLong(logOffset);
+        output.writeInt(accounts.size());
+        for (Map.Entry<UUID, AccountCheckpoint> account : accounts.entrySet()) {
+            output.writeLong(account.getKey().getMostSignificantBits());
+            output.writeLong(account.getKey().getLeastSignificantBits());
+            output.writeInt(account.getValue().verifiedOperations());
+            output.writeLong(account.getValue().balance().minorUnits());
+        }
+        output.flush();
+    }
+
+    public static ReconciliationCheckpoint readFrom(InputStream inputStream) throws IOException {
+        final DataInputStream input = new DataInputStream(inputStream);
+        final long logOffset = input.readLong();
+        final int size = input.readInt();
+        final Map<UUID, AccountCheckpoint> accounts = new HashMap<>(size * 4 / 3 + 1);
+        for (int i = 0; i < size; i++) {
+            final UUID accountId = new UUID(input.readLong(), input.readLong());
+            accounts.put(accountId, new AccountCheckpoint(input.readInt(), Amount.ofMinorUnits(input.readLong())));
+        }
+        return new ReconciliationCheckpoint(accounts, logOffset);
+    }
+}
@@ -0,0 +1,19 @@
+package org.squiot.bank.operation.reconciliation;
+
+import java.time.Duration;
+import java.util.List;
+
+public record ReconciliationReport(long accountsScanned, long operationsScanned, long brokenLinksCount,
+                                   List<BrokenLink> brokenLinks, Duration elapsed,
+                                   ReconciliationCheckpoint checkpoint) {
+
+    public boolean isConsistent() {
+        return brokenLinksCount == 0;
+    }
+
+    public double operationsPerSecond() {
+        if (elapsed.isZero())
+            return 0;
+        return operationsScanned * 1_000_000_000d / elapsed.toNanos();
+    }
+}
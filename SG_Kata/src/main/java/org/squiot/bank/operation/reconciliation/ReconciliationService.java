@@ -0,0 +1,333 @@
+package org.squiot.bank.operation.reconciliation;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.operation.data.OperationLog;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+public class ReconciliationService {
+
+    public static final int DEFAULT_MAX_REPORTED_BROKEN_LINKS = 1000;
+
+    private static final int ACCOUNTS_PER_TASK = 64;
+    private static final int MIN_OPERATIONS_PER_RANGE = 1024;
+
+    private final OperationDAO operationDAO;
+    private final ForkJoinPool pool;
+    private final int maxReportedBrokenLinks;
+
+    public ReconciliationService(OperationDAO operationDAO, ForkJoinPool pool) {
+        this(operationDAO, pool, DEFAULT_MAX_REPORTED_BROKEN_LINKS);
+    }
+
+    public ReconciliationService(OperationDAO operationDAO, ForkJoinPool pool, int maxReportedBrokenLinks) {
+        if (maxReportedBrokenLinks < 0)
+            throw new IllegalArgumentException("Reported broken links count shouldn't be negative.");
+
+        this.operationDAO = operationDAO;
+        this.pool = pool;
+        this.maxReportedBrokenLinks = maxReportedBrokenLinks;
+    }
+
+    public ReconciliationReport reconcile() {
+        return reconcile(ReconciliationCheckpoint.empty());
+    }
+
+    public ReconciliationReport reconcile(ReconciliationCheckpoint checkpoint) {
+        // A log offset is only trusted from a log scan, and a log shorter than it falls back to the per account audit reporting the mismatch.
+        if (operationDAO instanceof OperationLog operationLog) {
+            final long committedOperations = operationLog.committedOperations();
+            if ((checkpoint.logOffset() > 0 || checkpoint.accounts().isEmpty()) && checkpoint.logOffset() <= committedOperations)
+                return reconcileLog(operationLog, checkpoint, committedOperations);
+        }
+
+        final Set<UUID> accountIds = new LinkedHashSet<>(operationDAO.findAllAccountIds());
+        accountIds.addAll(checkpoint.accounts().keySet());
+        return reconcile(accountIds, checkpoint);
+    }
+
+    public ReconciliationReport reconcile(Collection<UUID> accountIds, ReconciliationCheckpoint checkpoint) {
+        final long startNanos = System.nanoTime();
+        final Scan scan = new Scan(checkpoint);
+        final UUID[] accounts = accountIds.toArray(UUID[]::new);
+
+        pool.invoke(new ReconciliationTask(scan, accounts, 0, accounts.length));
+
+        return scan.report(accounts.length, startNanos, 0);
+    }
+
+    // Each range of the log is verified on its own, then the ranges are merged in log order, linking the first operation
+    // of each account in a range to the balance the previous ranges ended with, so every operation is read once.
+    private ReconciliationReport reconcileLog(OperationLog operationLog, ReconciliationCheckpoint checkpoint, long toOperation) {
+        final long startNanos = System.nanoTime();
+        final Scan scan = new Scan(checkpoint);
+        final long fromOperation = checkpoint.logOffset();
+        final long operations = toOperation - fromOperation;
+        final int ranges = (int) Math.max(1, Math.min(pool.getParallelism(), operations / MIN_OPERATIONS_PER_RANGE));
+        final long operationsPerRange = (operations + ranges - 1) / ranges;
+
+        final List<ForkJoinTask<LogRange>> tasks = new ArrayList<>(ranges);
+        for (int range = 0; range < ranges; range++) {
+            final long from = Math.min(toOperation, fromOperation + range * operationsPerRange);
+            final long to = Math.min(toOperation, from + operationsPerRange);
+            tasks.add(pool.submit(() -> {
+                final LogRange logRange = new LogRange(from);
+                operationLog.scanInCreationOrder(from, to, logRange::accept);
+                return logRange;
+            }));
+        }
+
+        final Map<UUID, AccountCheckpoint> accounts = new HashMap<>(checkpoint.accounts());
+        for (ForkJoinTask<LogRange> task : tasks) {
+            task.join().mergeInto(accounts, scan, operationLog);
+        }
+        scan.checkpoints.putAll(accounts);
+        scan.operationsScanned.add(operations);
+
+        return scan.report(accounts.size(), startNanos, toOperation);
+    }
+
+    private static Operation operationAt(OperationLog operationLog, long position) {
+        final Operation[] operation = new Operation[1];
+        operationLog.scanInCreationOrder(position, position + 1, read -> operation[0] = read);
+        return operation[0];
+    }
+
+    private static boolean isDebit(Operation operation) {
+        return switch (operation.operationType()) {
+            case DEPOSIT, TRANSFER_IN -> false;
+            case WITHDRAWAL, TRANSFER_OUT -> true;
+        };
+    }
+
+    private void reconcileAccount(UUID accountId, Scan scan) {
+        final int fromIndex = Math.max(0, scan.checkpoint.of(accountId).verifiedOperations() - 1);
+        final AccountChain chain = new AccountChain(scan, accountId, fromIndex);
+        try (Stream<Operation> operations = operationDAO.streamSortedOperationsByAccountIdFrom(accountId, fromIndex)) {
+            operations.forEachOrdered(chain::accept);
+        }
+        chain.finish(() -> operationDAO.findLastOperationByAccountId(accountId).orElse(null));
+    }
+
+    private final class AccountChain {
+
+        private final Scan scan;
+        private final UUID accountId;
+        private final AccountCheckpoint checkpoint;
+        private int index;
+        private long balance;
+        private int scannedOperations;
+        private Operation lastOperation;
+
+        private AccountChain(Scan scan, UUID accountId, int fromIndex) {
+            this.scan = scan;
+            this.accountId = accountId;
+            this.checkpoint = scan.checkpoint.of(accountId);
+            this.index = fromIndex;
+            this.balance = checkpoint.balance().minorUnits();
+        }
+
+        private void accept(Operation operation) {
+            lastOperation = operation;
+            final int verifiedOperations = checkpoint.verifiedOperations();
+            if (index < verifiedOperations - 1) {
+                index++;
+                return;
+            }
+            if (index == verifiedOperations - 1) {
+                if (!operation.balance().equals(checkpoint.balance()))
+                    scan.report(new BrokenLink(BrokenLinkType.CHECKPOINT_MISMATCH, accountId, index, operation, checkpoint.balance()));
+                balance = operation.balance().minorUnits();
+                index++;
+                return;
+            }
+
+            final long amount = operation.amount().minorUnits();
+            final boolean debit = isDebit(operation);
+            final long expectedBalance = debit ? balance - amount : balance + amount;
+            final long recordedBalance = operation.balance().minorUnits();
+
+            if (recordedBalance != expectedBalance)
+                scan.report(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, index, operation, Amount.ofMinorUnits(expectedBalance)));
+            if (debit && recordedBalance < 0)
+                scan.report(new BrokenLink(BrokenLinkType.NEGATIVE_BALANCE, accountId, index, operation, Amount.ZERO));
+
+            balance = recordedBalance;
+            index++;
+            scannedOperations++;
+        }
+
+        private void finish(Supplier<Operation> lastKnownOperation) {
+            if (index < checkpoint.verifiedOperations()) {
+                scan.report(new BrokenLink(BrokenLinkType.CHECKPOINT_MISMATCH, accountId, checkpoint.verifiedOperations() - 1,
+                        lastOperation != null ? lastOperation : lastKnownOperation.get(), checkpoint.balance()));
+                return;
+            }
+
+            scan.operationsScanned.add(scannedOperations);
+            if (scannedOperations > 0)
+                scan.checkpoints.put(accountId, new AccountCheckpoint(index, Amount.ofMinorUnits(balance)));
+        }
+    }
+
+    // Broken links are indexed within the range until the merge knows how many operations each account had before it.
+    private final class LogRange {
+
+        private final Map<UUID, RangeChain> chains = new HashMap<>();
+        private final List<BrokenLink> brokenLinks = new ArrayList<>();
+        private long brokenLinksCount;
+        private long position;
+
+        private LogRange(long fromOperation) {
+            this.position = fromOperation;
+        }
+
+        private void accept(Operation operation) {
+            final long amount = operation.amount().minorUnits();
+            final boolean debit = isDebit(operation);
+            final long delta = debit ? -amount : amount;
+            final long recordedBalance = operation.balance().minorUnits();
+            final RangeChain chain = chains.get(operation.accountId());
+
+            final int index;
+            if (chain == null) {
+                index = 0;
+                chains.put(operation.accountId(), new RangeChain(position, delta, recordedBalance));
+            } else {
+                index = chain.count;
+                final long expectedBalance = chain.lastBalance + delta;
+                if (recordedBalance != expectedBalance)
+                    report(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, operation.accountId(), index, operation, Amount.ofMinorUnits(expectedBalance)));
+                chain.lastBalance = recordedBalance;
+                chain.count++;
+            }
+            if (debit && recordedBalance < 0)
+                report(new BrokenLink(BrokenLinkType.NEGATIVE_BALANCE, operation.accountId(), index, operation, Amount.ZERO));
+            position++;
+        }
+
+        private void report(BrokenLink brokenLink) {
+            brokenLinksCount++;
+            if (brokenLinks.size() < maxReportedBrokenLinks)
+                brokenLinks.add(brokenLink);
+        }
+
+        private void mergeInto(Map<UUID, AccountCheckpoint> accounts, Scan scan, OperationLog operationLog) {
+            for (BrokenLink brokenLink : brokenLinks) {
+                final int previousOperations = accounts.getOrDefault(brokenLink.accountId(), AccountCheckpoint.START).verifiedOperations();
+                scan.report(new BrokenLink(brokenLink.type(), brokenLink.accountId(), previousOperations + brokenLink.index(),
+                        brokenLink.operation(), brokenLink.expectedBalance()));
+            }
+            scan.brokenLinksCount.add(brokenLinksCount - brokenLinks.size());
+
+            chains.forEach((accountId, chain) -> {
+                final AccountCheckpoint previous = accounts.getOrDefault(accountId, AccountCheckpoint.START);
+                final long expectedBalance = previous.balance().minorUnits() + chain.firstDelta;
+                if (chain.firstBalance != expectedBalance)
+                    scan.report(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, previous.verifiedOperations(),
+                            operationAt(operationLog, chain.firstPosition), Amount.ofMinorUnits(expectedBalance)));
+                accounts.put(accountId, new AccountCheckpoint(previous.verifiedOperations() + chain.count, Amount.ofMinorUnits(chain.lastBalance)));
+            });
+        }
+    }
+
+    private static final class RangeChain {
+
+        private final long firstPosition;
+        private final long firstDelta;
+        private final long firstBalance;
+        private long lastBalance;
+        private int count = 1;
+
+        private RangeChain(long firstPosition, long firstDelta, long firstBalance) {
+            this.firstPosition = firstPosition;
+            this.firstDelta = firstDelta;
+            this.firstBalance = firstBalance;
+            this.lastBalance = firstBalance;
+        }
+    }
+
+    private final class Scan {
+
+        private final ReconciliationCheckpoint checkpoint;
+        private final Map<UUID, AccountCheckpoint> checkpoints = new ConcurrentHashMap<>();
+        private final Queue<BrokenLink> brokenLinks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger reportedBrokenLinks = new AtomicInteger();
+        private final LongAdder brokenLinksCount = new LongAdder();
+        private final LongAdder operationsScanned = new LongAdder();
+
+        private Scan(ReconciliationCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        private void report(BrokenLink brokenLink) {
+            brokenLinksCount.increment();
+            if (reportedBrokenLinks.get() < maxReportedBrokenLinks && reportedBrokenLinks.incrementAndGet() <= maxReportedBrokenLinks)
+                brokenLinks.add(brokenLink);
+        }
+
+        private ReconciliationReport report(long accountsScanned, long startNanos, long logOffset) {
+            final Map<UUID, AccountCheckpoint> mergedCheckpoints = new HashMap<>(checkpoint.accounts());
+            mergedCheckpoints.putAll(checkpoints);
+            return new ReconciliationReport(
+                    accountsScanned,
+                    operationsScanned.sum(),
+                    brokenLinksCount.sum(),
+                    List.copyOf(brokenLinks),
+                    Duration.ofNanos(System.nanoTime() - startNanos),
+                    new ReconciliationCheckpoint(mergedCheckpoints, logOffset)
+            );
+        }
+    }
+
+    private final class ReconciliationTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final Scan scan;
+        private final UUID[] accountIds;
+        private final int from;
+        private final int to;
+
+        private ReconciliationTask(Scan scan, UUID[] accountIds, int from, int to) {
+            this.scan = scan;
+            this.accountIds = accountIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= ACCOUNTS_PER_TASK) {
+                for (int index = from; index < to; index++) {
+                    reconcileAccount(accountIds[index], scan);
+                }
+                return;
+            }
+
+            final int middle = (from + to) >>> 1;
+            invokeAll(new ReconciliationTask(scan, accountIds, from, middle),
+                    new ReconciliationTask(scan, accountIds, middle, to));
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.squiot.bank.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class ChannelStatementWriter implements StatementWriter, Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 20;
+
+    private final WritableByteChannel channel;
+    private final LineEncoder lineEncoder;
+
+    public ChannelStatementWriter(WritableByteChannel channel) {
+        this(channel, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    public ChannelStatementWriter(WritableByteChannel channel, Charset charset, int bufferSize) {
+        if (bufferSize < 16)
+            throw new IllegalArgumentException("Buffer size should be at least 16 bytes.");
+
+        this.channel = channel;
+        this.lineEncoder = new LineEncoder(charset, bufferSize);
+    }
+
+    @Override
+    public void write(List<String> statementDetails) {
+        write(statementDetails.iterator());
+    }
+
+    @Override
+    public void write(Stream<String> statementDetails) {
+        write(statementDetails.iterator());
+    }
+
+    private synchronized void write(Iterator<String> statementDetails) {
+        try {
+            lineEncoder.encode(statementDetails, channel);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Statement couldn't be written to the channel.", e);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
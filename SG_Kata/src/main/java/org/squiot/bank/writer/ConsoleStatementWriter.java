@@ -1,6 +1,7 @@
 package org.squiot.bank.writer;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public class ConsoleStatementWriter implements StatementWriter {
     @Override
@@ -9,4 +10,9 @@ public class ConsoleStatementWriter implements StatementWriter {
             System.out.println(statementLine);
         }
     }
+
+    @Override
+    public void write(Stream<String> statementLines) {
+        statementLines.forEachOrdered(System.out::println);
+    }
 }
@@ -0,0 +1,77 @@
+package org.squiot.bank.writer;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+public class FileStatementWriter implements StatementWriter {
+
+    private static final int LINE_SEPARATOR_LENGTH = System.lineSeparator().length();
+
+    private final Path directory;
+    private final String prefix;
+    private final Charset charset;
+    private final int bufferSize;
+    private final AtomicLong sequence = new AtomicLong();
+    private final ThreadLocal<LineEncoder> lineEncoders;
+
+    public FileStatementWriter(Path directory, String prefix) {
+        this(directory, prefix, StandardCharsets.UTF_8, ChannelStatementWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    public FileStatementWriter(Path directory, String prefix, Charset charset, int bufferSize) {
+        if (bufferSize < 16)
+            throw new IllegalArgumentException("Buffer size should be at least 16 bytes.");
+
+        this.directory = directory;
+        this.prefix = prefix;
+        this.charset = charset;
+        this.bufferSize = bufferSize;
+        this.lineEncoders = ThreadLocal.withInitial(() -> new LineEncoder(this.charset, this.bufferSize));
+    }
+
+    @Override
+    public void write(List<String> statementDetails) {
+        long expectedLength = 0;
+        for (String statementDetail : statementDetails) {
+            expectedLength += statementDetail.length() + LINE_SEPARATOR_LENGTH;
+        }
+        write(statementDetails.iterator(), expectedLength);
+    }
+
+    @Override
+    public void write(Stream<String> statementDetails) {
+        write(statementDetails.iterator(), 0);
+    }
+
+    private Path nextFile() {
+        return directory.resolve("%s-%08d.txt".formatted(prefix, sequence.incrementAndGet()));
+    }
+
+    private void write(Iterator<String> statementDetails, long expectedLength) {
+        final Path file = nextFile();
+
+        try {
+            Files.createDirectories(directory);
+            try (RandomAccessFile randomAccessFile = new RandomAccessFile(file.toFile(), "rw");
+                 FileChannel channel = randomAccessFile.getChannel()) {
+                if (expectedLength > 0)
+                    randomAccessFile.setLength(expectedLength);
+
+                final long written = lineEncoders.get().encode(statementDetails, channel);
+                channel.truncate(written);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Statement couldn't be written to " + file + ".", e);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.squiot.bank.writer;
+
+import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StreamedAccountStatement;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.metrics.LatencyTimer;
+import org.squiot.bank.metrics.MetricsRegistry;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+public class InstrumentedStatementFormatter implements StatementFormatter {
+
+    private final StatementFormatter statementFormatter;
+    private final LatencyTimer formatStatementTimer;
+
+    public InstrumentedStatementFormatter(StatementFormatter statementFormatter, MetricsRegistry metricsRegistry) {
+        this.statementFormatter = statementFormatter;
+        this.formatStatementTimer = metricsRegistry.timer("formatter.formatStatement");
+    }
+
+    @Override
+    public List<String> formatStatement(AccountStatement accountStatement) {
+        final long start = System.nanoTime();
+        try {
+            return statementFormatter.formatStatement(accountStatement);
+        } catch (RuntimeException e) {
+            formatStatementTimer.recordRejection(e);
+            throw e;
+        } finally {
+            formatStatementTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public Stream<String> formatStatement(StreamedAccountStatement accountStatement) {
+        final long start = System.nanoTime();
+        try {
+            return formatStatementTimer.recordOnClose(statementFormatter.formatStatement(accountStatement), start);
+        } catch (RuntimeException e) {
+            formatStatementTimer.recordRejection(e);
+            formatStatementTimer.recordSince(start);
+            throw e;
+        }
+    }
+
+    public static StatementFormatter instrument(StatementFormatter statementFormatter, MetricsRegistry metricsRegistry) {
+        return statementFormatter instanceof LineStatementFormatter lineStatementFormatter
+                ? new Lines(lineStatementFormatter, metricsRegistry)
+                : new InstrumentedStatementFormatter(statementFormatter, metricsRegistry);
+    }
+
+    // Only a line formatter gets the line hooks timed, so the instrumented formatter stays usable by StatementLinesCache exactly when the formatter it wraps is.
+    private static final class Lines extends InstrumentedStatementFormatter implements LineStatementFormatter {
+
+        private final LineStatementFormatter lineStatementFormatter;
+        private final LatencyTimer formatOperationLineTimer;
+
+        private Lines(LineStatementFormatter lineStatementFormatter, MetricsRegistry metricsRegistry) {
+            super(lineStatementFormatter, metricsRegistry);
+            this.lineStatementFormatter = lineStatementFormatter;
+            this.formatOperationLineTimer = metricsRegistry.timer("formatter.formatOperationLine");
+        }
+
+        @Override
+        public String formatOperationLine(Operation operation) {
+            final long start = System.nanoTime();
+            try {
+                return lineStatementFormatter.formatOperationLine(operation);
+            } catch (RuntimeException e) {
+                formatOperationLineTimer.recordRejection(e);
+                throw e;
+            } finally {
+                formatOperationLineTimer.recordSince(start);
+            }
+        }
+
+        @Override
+        public List<String> formatStatement(UUID accountId, LocalDateTime date, Amount balance, List<String> operationLines) {
+            final long start = System.nanoTime();
+            try {
+                return lineStatementFormatter.formatStatement(accountId, date, balance, operationLines);
+            } catch (RuntimeException e) {
+                super.formatStatementTimer.recordRejection(e);
+                throw e;
+            } finally {
+                super.formatStatementTimer.recordSince(start);
+            }
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.squiot.bank.writer;
+
+import org.squiot.bank.metrics.LatencyTimer;
+import org.squiot.bank.metrics.MetricsRegistry;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public class InstrumentedStatementWriter implements StatementWriter {
+
+    private final StatementWriter statementWriter;
+    private final LatencyTimer writeTimer;
+
+    public InstrumentedStatementWriter(StatementWriter statementWriter, MetricsRegistry metricsRegistry) {
+        this.statementWriter = statementWriter;
+        this.writeTimer = metricsRegistry.timer("writer.write");
+    }
+
+    @Override
+    public void write(List<String> statementDetails) {
+        final long start = System.nanoTime();
+        try {
+            statementWriter.write(statementDetails);
+        } catch (RuntimeException e) {
+            writeTimer.recordRejection(e);
+            throw e;
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+
+    @Override
+    public void write(Stream<String> statementDetails) {
+        final long start = System.nanoTime();
+        try {
+            statementWriter.write(statementDetails);
+        } catch (RuntimeException e) {
+            writeTimer.recordRejection(e);
+            throw e;
+        } finally {
+            writeTimer.recordSince(start);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package org.squiot.bank.writer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.util.Iterator;
+
+final class LineEncoder {
+
+    private static final CharBuffer LINE_SEPARATOR = CharBuffer.wrap(System.lineSeparator());
+
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder;
+
+    LineEncoder(Charset charset, int bufferSize) {
+        this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        this.encoder = charset.newEncoder();
+    }
+
+    long encode(Iterator<String> lines, WritableByteChannel channel) throws IOException {
+        long written = 0;
+        buffer.clear();
+
+        while (lines.hasNext()) {
+            written += encode(CharBuffer.wrap(lines.next()), channel);
+            written += encode(LINE_SEPARATOR.duplicate(), channel);
+        }
+
+        return written + drain(channel);
+    }
+
+    private long encode(CharBuffer chars, WritableByteChannel channel) throws IOException {
+        long written = 0;
+        encoder.reset();
+
+        while (true) {
+            final CoderResult result = encoder.encode(chars, buffer, true);
+            if (result.isUnderflow())
+                break;
+            if (result.isOverflow())
+                written += drain(channel);
+            else
+                result.throwException();
+        }
+
+        while (encoder.flush(buffer).isOverflow()) {
+            written += drain(channel);
+        }
+        return written;
+    }
+
+    private long drain(WritableByteChannel channel) throws IOException {
+        buffer.flip();
+        long written = 0;
+        while (buffer.hasRemaining()) {
+            written += channel.write(buffer);
+        }
+        buffer.clear();
+        return written;
+    }
+}
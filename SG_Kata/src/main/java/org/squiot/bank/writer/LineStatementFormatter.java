@@ -0,0 +1,15 @@
+package org.squiot.bank.writer;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+// A formatter rendering one line per operation, so StatementLinesCache can render each line once and reassemble them around a fresh header.
+public interface LineStatementFormatter extends StatementFormatter {
+    String formatOperationLine(Operation operation);
+
+    List<String> formatStatement(UUID accountId, LocalDateTime date, Amount balance, List<String> operationLines);
+}
@@ -0,0 +1,6 @@
+package org.squiot.bank.writer;
+
+public enum OverflowPolicy {
+    BLOCK,
+    DROP
+}
@@ -0,0 +1,26 @@
+package org.squiot.bank.writer;
+
+import java.io.PrintStream;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class PrintStreamStatementWriter implements StatementWriter {
+
+    private final PrintStream printStream;
+
+    public PrintStreamStatementWriter(PrintStream printStream) {
+        this.printStream = printStream;
+    }
+
+    @Override
+    public void write(List<String> statementLines) {
+        for (String statementLine : statementLines) {
+            printStream.println(statementLine);
+        }
+    }
+
+    @Override
+    public void write(Stream<String> statementLines) {
+        statementLines.forEachOrdered(printStream::println);
+    }
+}
@@ -0,0 +1,233 @@
+package org.squiot.bank.writer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+public class RingBufferStatementWriter implements StatementWriter, Closeable {
+
+    public static final int DEFAULT_CAPACITY = 1024;
+    public static final long DEFAULT_MAX_PENDING_LINES = 1L << 20;
+
+    private static final System.Logger LOGGER = System.getLogger(RingBufferStatementWriter.class.getName());
+
+    private final StatementWriter statementWriter;
+    private final WaitStrategy waitStrategy;
+    private final OverflowPolicy overflowPolicy;
+    private final long maxPendingLines;
+
+    private final Object[] statements;
+    private final AtomicLongArray publishedSequences;
+    private final int mask;
+
+    private final AtomicLong claimedSequence = new AtomicLong();
+    private final AtomicLong pendingLines = new AtomicLong();
+    private volatile long consumedSequence;
+    private volatile boolean closed;
+    private volatile Throwable consumerFailure;
+
+    private final LongAdder droppedStatements = new LongAdder();
+    private final LongAdder failedStatements = new LongAdder();
+    private final Thread consumer;
+
+    public RingBufferStatementWriter(StatementWriter statementWriter) {
+        this(statementWriter, DEFAULT_CAPACITY, WaitStrategy.PARKING, OverflowPolicy.BLOCK);
+    }
+
+    public RingBufferStatementWriter(StatementWriter statementWriter, int capacity, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        this(statementWriter, capacity, DEFAULT_MAX_PENDING_LINES, waitStrategy, overflowPolicy);
+    }
+
+    // Statements are counted in slots and their lines against maxPendingLines, so a few huge statements can't hold unbounded memory.
+    public RingBufferStatementWriter(StatementWriter statementWriter, int capacity, long maxPendingLines, WaitStrategy waitStrategy, OverflowPolicy overflowPolicy) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity should be a positive power of two.");
+        if (maxPendingLines <= 0)
+            throw new IllegalArgumentException("Pending lines count should be positive.");
+
+        this.statementWriter = statementWriter;
+        this.waitStrategy = waitStrategy;
+        this.overflowPolicy = overflowPolicy;
+        this.maxPendingLines = maxPendingLines;
+        this.statements = new Object[capacity];
+        this.publishedSequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+        this.consumer = new Thread(this::consumeLoop, "statement-writer");
+        this.consumer.setDaemon(true);
+        this.consumer.start();
+    }
+
+    @Override
+    public void write(List<String> statementDetails) {
+        publish(statementDetails);
+    }
+
+    // The consumer hands whole statements to the wrapped writer, so a streamed statement is collected on the caller thread
+    // before being published, and its lines count against maxPendingLines like any other statement.
+    @Override
+    public void write(Stream<String> statementDetails) {
+        publish(statementDetails.toList());
+    }
+
+    public void flush() {
+        final long target = claimedSequence.get();
+        for (int attempt = 0; consumedSequence < target; attempt++) {
+            ensureConsumerAlive();
+            if (!consumer.isAlive())
+                throw new IllegalStateException("Statement writer is closed.");
+            waitStrategy.idle(attempt);
+        }
+    }
+
+    public long droppedStatements() {
+        return droppedStatements.sum();
+    }
+
+    public long failedStatements() {
+        return failedStatements.sum();
+    }
+
+    public long pendingStatements() {
+        return claimedSequence.get() - consumedSequence;
+    }
+
+    public long pendingLines() {
+        return pendingLines.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed)
+            return;
+        closed = true;
+
+        try {
+            consumer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (statementWriter instanceof Closeable closeable)
+            closeable.close();
+    }
+
+    private void publish(List<String> statementDetails) {
+        if (closed)
+            throw new IllegalStateException("Statement writer is closed.");
+        ensureConsumerAlive();
+
+        final int lines = statementDetails.size();
+        if (!reserveLines(lines)) {
+            droppedStatements.increment();
+            return;
+        }
+
+        final long sequence;
+        try {
+            sequence = claim();
+        } catch (RuntimeException e) {
+            pendingLines.addAndGet(-lines);
+            throw e;
+        }
+        if (sequence < 0) {
+            pendingLines.addAndGet(-lines);
+            droppedStatements.increment();
+            return;
+        }
+
+        final int index = (int) sequence & mask;
+        if (closed) {
+            pendingLines.addAndGet(-lines);
+            statements[index] = null;
+            publishedSequences.set(index, sequence + 1);
+            throw new IllegalStateException("Statement writer is closed.");
+        }
+        statements[index] = statementDetails;
+        publishedSequences.set(index, sequence + 1);
+    }
+
+    // A statement larger than the bound on its own still goes through once nothing else is pending.
+    private boolean reserveLines(int lines) {
+        for (int attempt = 0; ; attempt++) {
+            final long pending = pendingLines.get();
+            if (pending > 0 && pending + lines > maxPendingLines) {
+                if (overflowPolicy == OverflowPolicy.DROP)
+                    return false;
+                if (closed)
+                    throw new IllegalStateException("Statement writer is closed.");
+                ensureConsumerAlive();
+                waitStrategy.idle(attempt);
+            } else if (pendingLines.compareAndSet(pending, pending + lines)) {
+                return true;
+            }
+        }
+    }
+
+    private long claim() {
+        for (int attempt = 0; ; attempt++) {
+            final long sequence = claimedSequence.get();
+            if (sequence - consumedSequence >= statements.length) {
+                if (overflowPolicy == OverflowPolicy.DROP)
+                    return -1;
+                if (closed)
+                    throw new IllegalStateException("Statement writer is closed.");
+                ensureConsumerAlive();
+                waitStrategy.idle(attempt);
+            } else if (claimedSequence.compareAndSet(sequence, sequence + 1)) {
+                return sequence;
+            }
+        }
+    }
+
+    // A producer blocked on a full buffer would otherwise wait forever for a consumer that is gone.
+    private void ensureConsumerAlive() {
+        final Throwable failure = consumerFailure;
+        if (failure != null)
+            throw new IllegalStateException("Statement writer consumer died, statements are no longer written.", failure);
+    }
+
+    private void consumeLoop() {
+        try {
+            consumeStatements();
+        } catch (RuntimeException | Error e) {
+            consumerFailure = e;
+            LOGGER.log(System.Logger.Level.ERROR, "Statement writer consumer died, statements are no longer written.", e);
+            throw e;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void consumeStatements() {
+        long sequence = 0;
+        int attempt = 0;
+
+        while (!closed || sequence < claimedSequence.get()) {
+            final int index = (int) sequence & mask;
+            if (publishedSequences.get(index) != sequence + 1) {
+                waitStrategy.idle(attempt++);
+                continue;
+            }
+            attempt = 0;
+
+            final List<String> statementDetails = (List<String>) statements[index];
+            statements[index] = null;
+            if (statementDetails != null) {
+                writeSafely(statementDetails);
+                pendingLines.addAndGet(-statementDetails.size());
+            }
+            consumedSequence = ++sequence;
+        }
+    }
+
+    private void writeSafely(List<String> statementDetails) {
+        try {
+            statementWriter.write(statementDetails);
+        } catch (RuntimeException e) {
+            failedStatements.increment();
+            LOGGER.log(System.Logger.Level.WARNING, "Statement couldn't be written by the consumer thread.", e);
+        }
+    }
+}
@@ -1,9 +1,15 @@
 package org.squiot.bank.writer;
 
 import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StreamedAccountStatement;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StatementFormatter {
     List<String> formatStatement(AccountStatement accountStatement);
+
+    default Stream<String> formatStatement(StreamedAccountStatement accountStatement) {
+        return formatStatement(accountStatement.collect()).stream();
+    }
 }
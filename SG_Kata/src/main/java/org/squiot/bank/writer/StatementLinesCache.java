@@ -0,0 +1,140 @@
+package org.squiot.bank.writer;
+
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.IntFunction;
+
+public class StatementLinesCache {
+
+    private static final int INITIAL_LINES_CAPACITY = 16;
+
+    private final long maxCachedLines;
+    private final LinkedHashMap<UUID, RenderedOperations> renderedOperations = new LinkedHashMap<>(16, 0.75f, true);
+
+    private long cachedLines;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public StatementLinesCache(long maxCachedLines) {
+        if (maxCachedLines <= 0)
+            throw new IllegalArgumentException("Cached lines count should be positive.");
+
+        this.maxCachedLines = maxCachedLines;
+    }
+
+    public List<String> formatStatement(LineStatementFormatter statementFormatter, UUID accountId, LocalDateTime date, IntFunction<List<Operation>> operationsFrom) {
+        final RenderedOperations rendered = renderedOperationsOf(accountId, statementFormatter);
+        final String[] lines;
+        final int size;
+        final Amount balance;
+
+        synchronized (rendered) {
+            for (Operation operation : operationsFrom.apply(rendered.size)) {
+                rendered.append(statementFormatter.formatOperationLine(operation), operation.balance());
+            }
+            lines = rendered.lines;
+            size = rendered.size;
+            balance = rendered.balance;
+        }
+        account(accountId, rendered);
+
+        return statementFormatter.formatStatement(accountId, date, balance, Collections.unmodifiableList(Arrays.asList(lines).subList(0, size)));
+    }
+
+    public synchronized void invalidate(UUID accountId) {
+        final RenderedOperations rendered = renderedOperations.remove(accountId);
+        if (rendered != null)
+            cachedLines -= rendered.accountedLines;
+    }
+
+    public synchronized long cachedLines() {
+        return cachedLines;
+    }
+
+    public synchronized int cachedAccounts() {
+        return renderedOperations.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    private synchronized RenderedOperations renderedOperationsOf(UUID accountId, LineStatementFormatter statementFormatter) {
+        RenderedOperations rendered = renderedOperations.get(accountId);
+        if (rendered != null && rendered.statementFormatter == statementFormatter) {
+            hits++;
+            return rendered;
+        }
+
+        misses++;
+        if (rendered != null)
+            cachedLines -= rendered.accountedLines;
+        rendered = new RenderedOperations(statementFormatter);
+        renderedOperations.put(accountId, rendered);
+        return rendered;
+    }
+
+    private synchronized void account(UUID accountId, RenderedOperations rendered) {
+        if (renderedOperations.get(accountId) != rendered)
+            return;
+
+        final int renderedLines = rendered.size;
+        if (renderedLines > maxCachedLines) {
+            renderedOperations.remove(accountId);
+            cachedLines -= rendered.accountedLines;
+            evictions++;
+            return;
+        }
+
+        cachedLines += renderedLines - rendered.accountedLines;
+        rendered.accountedLines = renderedLines;
+
+        final Iterator<RenderedOperations> eldest = renderedOperations.values().iterator();
+        while (cachedLines > maxCachedLines && eldest.hasNext()) {
+            final RenderedOperations evicted = eldest.next();
+            if (evicted == rendered)
+                break;
+            eldest.remove();
+            cachedLines -= evicted.accountedLines;
+            evictions++;
+        }
+    }
+
+    private static final class RenderedOperations {
+
+        private final LineStatementFormatter statementFormatter;
+        private String[] lines = new String[INITIAL_LINES_CAPACITY];
+        private volatile int size;
+        private Amount balance = Amount.ZERO;
+        private int accountedLines;
+
+        private RenderedOperations(LineStatementFormatter statementFormatter) {
+            this.statementFormatter = statementFormatter;
+        }
+
+        private void append(String line, Amount updatedBalance) {
+            if (size == lines.length)
+                lines = Arrays.copyOf(lines, lines.length * 2);
+            lines[size] = line;
+            balance = updatedBalance;
+            size++;
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package org.squiot.bank.writer;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface StatementWriter {
     void write(List<String> statementDetails);
+
+    default void write(Stream<String> statementDetails) {
+        write(statementDetails.toList());
+    }
 }
@@ -0,0 +1,118 @@
+package org.squiot.bank.writer;
+
+import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.PeriodRollup;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.account.SummaryStatement;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.squiot.bank.writer.TableStatementFormatter.LINE_SEPARATOR;
+import static org.squiot.bank.writer.TableStatementFormatter.NO_OPERATIONS_LINE;
+import static org.squiot.bank.writer.TableStatementFormatter.WIDTH_LINE;
+import static org.squiot.bank.writer.TableStatementFormatter.WIDTH_TABLE;
+import static org.squiot.bank.writer.TableStatementFormatter.appendDate;
+import static org.squiot.bank.writer.TableStatementFormatter.centerLine;
+import static org.squiot.bank.writer.TableStatementFormatter.padColumn;
+import static org.squiot.bank.writer.TableStatementFormatter.rightSpaced;
+
+public class SummaryStatementFormatter implements StatementFormatter {
+
+    // Credits and debits include the transfers received and sent, as rolled up by PeriodRollup.
+    private static final List<String> HEADERS_COLUMNS = List.of(
+            "PERIOD",
+            "CREDITS",
+            "DEBITS",
+            "OPENING BALANCE",
+            "CLOSING BALANCE"
+    );
+    private static final int WIDTH_COLUMN = WIDTH_TABLE / HEADERS_COLUMNS.size();
+
+    private static final String TITLE_LINE = centerLine("SUMMARY STATEMENT");
+    private static final String COLUMNS_HEADER_LINE = formatColumnsHeader();
+
+    private final RollupPeriod period;
+
+    public SummaryStatementFormatter(RollupPeriod period) {
+        this.period = period;
+    }
+
+    @Override
+    public List<String> formatStatement(AccountStatement accountStatement) {
+        return formatStatement(new SummaryStatement(
+                accountStatement.accountId(),
+                accountStatement.date(),
+                period,
+                PeriodRollup.rollUp(accountStatement.operations(), period),
+                accountStatement.balance()
+        ));
+    }
+
+    public List<String> formatStatement(SummaryStatement summaryStatement) {
+        final StringBuilder lineBuffer = new StringBuilder(WIDTH_LINE);
+        final List<String> lines = new ArrayList<>(summaryStatement.rollups().size() + 12);
+
+        lines.add(LINE_SEPARATOR);
+        lines.add(TITLE_LINE);
+        lineBuffer.setLength(0);
+        lines.add(centerLine(appendDate(lineBuffer.append("AT : "), summaryStatement.date())));
+        lineBuffer.setLength(0);
+        lines.add(centerLine(lineBuffer.append("ACCOUNT ID : ").append(summaryStatement.accountId())));
+        lineBuffer.setLength(0);
+        lines.add(centerLine(lineBuffer.append("PERIOD : ").append(summaryStatement.period())));
+        lineBuffer.setLength(0);
+        lines.add(centerLine(summaryStatement.balance().appendTo(lineBuffer.append("BALANCE : "))));
+        lines.add(LINE_SEPARATOR);
+        lines.add(COLUMNS_HEADER_LINE);
+        lines.add(LINE_SEPARATOR);
+
+        if (summaryStatement.rollups().isEmpty()) {
+            lines.add(NO_OPERATIONS_LINE);
+        } else {
+            for (PeriodRollup rollup : summaryStatement.rollups()) {
+                lines.add(formatLineRollup(lineBuffer, summaryStatement.period(), rollup));
+            }
+        }
+
+        lines.add(LINE_SEPARATOR);
+        return lines;
+    }
+
+    private static String formatLineRollup(StringBuilder lineBuffer, RollupPeriod period, PeriodRollup rollup) {
+        lineBuffer.setLength(0);
+        lineBuffer.append('|');
+
+        int columnStart = lineBuffer.length();
+        lineBuffer.append(period.labelOf(rollup.start()));
+        padColumn(lineBuffer, columnStart, WIDTH_COLUMN);
+
+        columnStart = lineBuffer.length();
+        rollup.deposits().appendTo(lineBuffer);
+        padColumn(lineBuffer, columnStart, WIDTH_COLUMN);
+
+        columnStart = lineBuffer.length();
+        rollup.withdrawals().appendTo(lineBuffer);
+        padColumn(lineBuffer, columnStart, WIDTH_COLUMN);
+
+        columnStart = lineBuffer.length();
+        rollup.openingBalance().appendTo(lineBuffer);
+        padColumn(lineBuffer, columnStart, WIDTH_COLUMN);
+
+        columnStart = lineBuffer.length();
+        rollup.closingBalance().appendTo(lineBuffer);
+        padColumn(lineBuffer, columnStart, WIDTH_COLUMN);
+
+        return lineBuffer.append('|').toString();
+    }
+
+    private static String formatColumnsHeader() {
+        final StringBuilder headerColumns = new StringBuilder(WIDTH_LINE);
+
+        headerColumns.append('|');
+        for (String column : HEADERS_COLUMNS) {
+            rightSpaced(headerColumns, column, WIDTH_COLUMN);
+        }
+        return headerColumns.append('|').toString();
+    }
+}
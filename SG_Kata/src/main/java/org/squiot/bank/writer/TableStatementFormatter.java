@@ -1,18 +1,29 @@
 package org.squiot.bank.writer;
 
 import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StatementPeriod;
+import org.squiot.bank.account.StreamedAccountStatement;
+import org.squiot.bank.amount.Amount;
 import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.AbstractList;
 import java.util.ArrayList;
-import java.util.Collection;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.UUID;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class TableStatementFormatter implements StatementFormatter {
+public class TableStatementFormatter implements LineStatementFormatter {
 
-    private static final int WIDTH_TABLE = 160;
-    private static final String LINE_SEPARATOR = "*" + "-".repeat(WIDTH_TABLE) + "*";
+    static final int WIDTH_TABLE = 160;
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     private static final List<String> HEADERS_COLUMNS = List.of(
             "OPERATION",
@@ -20,87 +31,212 @@ public class TableStatementFormatter implements StatementFormatter {
             "AMOUNT",
             "BALANCE"
     );
+    private static final int WIDTH_COLUMN = WIDTH_TABLE / HEADERS_COLUMNS.size();
+    static final int WIDTH_LINE = WIDTH_TABLE + 2;
+
+    static final char[] SPACES = " ".repeat(WIDTH_TABLE).toCharArray();
+
+    static final String LINE_SEPARATOR = "*" + "-".repeat(WIDTH_TABLE) + "*";
+    private static final String TITLE_LINE = centerLine("ACCOUNT STATEMENT");
+    static final String COLUMNS_HEADER_LINE = formatColumnsHeader();
+    static final String NO_OPERATIONS_LINE = centerLine("-- NO OPERATIONS --");
+
+    private static final String[] OPERATION_TYPE_COLUMNS = Arrays.stream(OperationType.values())
+            .map(operationType -> rightSpaced(new StringBuilder(WIDTH_COLUMN), operationType.toString()).toString())
+            .toArray(String[]::new);
 
     @Override
     public List<String> formatStatement(AccountStatement accountStatement) {
-        return Stream.of(
-                        formatInformationsHeader(accountStatement),
-                        formatColumnsHeader(),
-                        formatOperations(accountStatement)
-                )
-                .flatMap(Collection::stream)
-                .toList();
+        final StringBuilder lineBuffer = new StringBuilder(WIDTH_LINE);
+        final List<String> lines = new ArrayList<>(accountStatement.operations().size() + 12);
+
+        formatInformationsHeader(lines, lineBuffer, accountStatement.accountId(), accountStatement.date(), accountStatement.balance(), accountStatement.period());
+        lines.add(COLUMNS_HEADER_LINE);
+        lines.add(LINE_SEPARATOR);
+
+        if (accountStatement.operations().isEmpty()) {
+            lines.add(NO_OPERATIONS_LINE);
+        } else {
+            for (Operation operation : accountStatement.operations()) {
+                lines.add(formatLineOperation(lineBuffer, operation));
+            }
+        }
+
+        lines.add(LINE_SEPARATOR);
+        return lines;
     }
 
-    private static List<String> formatInformationsHeader(AccountStatement accountStatement) {
-        String title = "|" + centerString(WIDTH_TABLE, "ACCOUNT STATEMENT") + "|";
-        String at = "|" + centerString(WIDTH_TABLE, "AT : " + accountStatement.date().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))) + "|";
-        String id = "|" + centerString(WIDTH_TABLE, "ACCOUNT ID : " + accountStatement.accountId()) + "|";
-        String balance = "|" + centerString(WIDTH_TABLE, "BALANCE : " + accountStatement.balance()) + "|";
+    @Override
+    public Stream<String> formatStatement(StreamedAccountStatement accountStatement) {
+        final StringBuilder lineBuffer = new StringBuilder(WIDTH_LINE);
+        final List<String> headers = new ArrayList<>(9);
+
+        formatInformationsHeader(headers, lineBuffer, accountStatement.accountId(), accountStatement.date(), accountStatement.balance(), null);
+        headers.add(COLUMNS_HEADER_LINE);
+        headers.add(LINE_SEPARATOR);
 
-        return List.of(
-                LINE_SEPARATOR,
-                title,
-                at,
-                id,
-                balance,
-                LINE_SEPARATOR
-        );
+        return Stream.concat(headers.stream(), formatOperations(lineBuffer, accountStatement.operations()))
+                .onClose(accountStatement.operations()::close);
     }
 
-    private static List<String> formatColumnsHeader() {
-        StringBuilder headerColumns = new StringBuilder();
+    @Override
+    public String formatOperationLine(Operation operation) {
+        return formatLineOperation(new StringBuilder(WIDTH_LINE), operation);
+    }
 
-        headerColumns.append("|");
+    @Override
+    public List<String> formatStatement(UUID accountId, LocalDateTime date, Amount balance, List<String> operationLines) {
+        final List<String> headers = new ArrayList<>(9);
 
-        for (String column : HEADERS_COLUMNS) {
-            String columnResponsive = column
-                    + " ".repeat(WIDTH_TABLE / HEADERS_COLUMNS.size() - column.length());
-            headerColumns.append(columnResponsive);
+        formatInformationsHeader(headers, new StringBuilder(WIDTH_LINE), accountId, date, balance, null);
+        headers.add(COLUMNS_HEADER_LINE);
+        headers.add(LINE_SEPARATOR);
+        return new StatementLines(headers, operationLines);
+    }
+
+    static void formatInformationsHeader(List<String> lines, StringBuilder lineBuffer, UUID accountId, LocalDateTime date, Amount balance, StatementPeriod period) {
+        lines.add(LINE_SEPARATOR);
+        lines.add(TITLE_LINE);
+
+        lineBuffer.setLength(0);
+        lines.add(centerLine(appendDate(lineBuffer.append("AT : "), date)));
+
+        if (period != null) {
+            lineBuffer.setLength(0);
+            appendDate(lineBuffer.append("FROM : "), period.from());
+            lines.add(centerLine(appendDate(lineBuffer.append(" TO : "), period.to())));
         }
 
-        headerColumns.append("|");
+        lineBuffer.setLength(0);
+        lines.add(centerLine(lineBuffer.append("ACCOUNT ID : ").append(accountId)));
+
+        if (period != null) {
+            lineBuffer.setLength(0);
+            lines.add(centerLine(period.openingBalance().appendTo(lineBuffer.append("OPENING BALANCE : "))));
+        }
 
-        return List.of(
-                headerColumns.toString(),
-                LINE_SEPARATOR
-        );
+        lineBuffer.setLength(0);
+        lines.add(centerLine(balance.appendTo(lineBuffer.append("BALANCE : "))));
+        lines.add(LINE_SEPARATOR);
     }
 
-    private static String formatLineOperation(Operation operation) {
+    private static String formatColumnsHeader() {
+        final StringBuilder headerColumns = new StringBuilder(WIDTH_LINE);
 
-        return "|" +
-                rightSpacedString(WIDTH_TABLE, HEADERS_COLUMNS.size(), operation.operationType().toString()) +
-                rightSpacedString(WIDTH_TABLE, HEADERS_COLUMNS.size(), operation.date().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))) +
-                rightSpacedString(WIDTH_TABLE, HEADERS_COLUMNS.size(), operation.amount().toString()) +
-                rightSpacedString(WIDTH_TABLE, HEADERS_COLUMNS.size(), operation.balance().toString()) +
-                "|";
+        headerColumns.append('|');
+        for (String column : HEADERS_COLUMNS) {
+            rightSpaced(headerColumns, column);
+        }
+        return headerColumns.append('|').toString();
     }
 
-    private static List<String> formatOperations(AccountStatement accountStatement) {
-        List<String> operations = new ArrayList<>();
+    private static Stream<String> formatOperations(StringBuilder lineBuffer, Stream<Operation> operations) {
+        final Iterator<Operation> iterator = operations.iterator();
 
-        if (accountStatement.operations().isEmpty()) {
-            operations.add("|" + centerString(WIDTH_TABLE, "-- NO OPERATIONS --") + "|");
-            operations.add(LINE_SEPARATOR);
-            return operations;
-        }
+        if (!iterator.hasNext())
+            return Stream.of(NO_OPERATIONS_LINE, LINE_SEPARATOR);
+
+        final Stream<String> lines = StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .map(operation -> formatLineOperation(lineBuffer, operation));
+        return Stream.concat(lines, Stream.of(LINE_SEPARATOR));
+    }
+
+    static String formatLineOperation(StringBuilder lineBuffer, Operation operation) {
+        lineBuffer.setLength(0);
+        lineBuffer.append('|').append(OPERATION_TYPE_COLUMNS[operation.operationType().ordinal()]);
+
+        int columnStart = lineBuffer.length();
+        appendDate(lineBuffer, operation.date());
+        padColumn(lineBuffer, columnStart);
+
+        columnStart = lineBuffer.length();
+        operation.amount().appendTo(lineBuffer);
+        padColumn(lineBuffer, columnStart);
+
+        columnStart = lineBuffer.length();
+        operation.balance().appendTo(lineBuffer);
+        padColumn(lineBuffer, columnStart);
+
+        return lineBuffer.append('|').toString();
+    }
 
-        for (Operation operation : accountStatement.operations()) {
-            operations.add(formatLineOperation(operation));
+    static StringBuilder appendDate(StringBuilder builder, LocalDateTime date) {
+        if (date.getYear() < 1000 || date.getYear() > 9999) {
+            DATE_FORMATTER.formatTo(date, builder);
+            return builder;
         }
 
-        operations.add(LINE_SEPARATOR);
-        return operations;
+        builder.append(date.getYear()).append('-');
+        appendTwoDigits(builder, date.getMonthValue()).append('-');
+        appendTwoDigits(builder, date.getDayOfMonth()).append(' ');
+        appendTwoDigits(builder, date.getHour()).append(':');
+        appendTwoDigits(builder, date.getMinute()).append(':');
+        return appendTwoDigits(builder, date.getSecond());
     }
 
-    private static String centerString(int width, String s) {
-        return String.format("%-" + width + "s", String.format("%" + (s.length() + (width - s.length()) / 2) + "s", s));
+    private static StringBuilder appendTwoDigits(StringBuilder builder, int value) {
+        return builder.append((char) ('0' + value / 10)).append((char) ('0' + value % 10));
     }
 
-    private static String rightSpacedString(int width, int numberString, String s) {
-        return s + " ".repeat(width / numberString - s.length());
+    static String centerLine(CharSequence text) {
+        final int length = text.length();
+        final int leftPadding = Math.max(0, (WIDTH_TABLE - length) / 2);
+        final int rightPadding = Math.max(0, WIDTH_TABLE - leftPadding - length);
+
+        final StringBuilder line = new StringBuilder(WIDTH_LINE + Math.max(0, length - WIDTH_TABLE));
+        return line.append('|').append(SPACES, 0, leftPadding).append(text).append(SPACES, 0, rightPadding).append('|').toString();
     }
 
-}
+    private static StringBuilder rightSpaced(StringBuilder builder, String s) {
+        return rightSpaced(builder, s, WIDTH_COLUMN);
+    }
 
+    static StringBuilder rightSpaced(StringBuilder builder, String s, int columnWidth) {
+        final int columnStart = builder.length();
+        builder.append(s);
+        return padColumn(builder, columnStart, columnWidth);
+    }
+
+    private static StringBuilder padColumn(StringBuilder builder, int columnStart) {
+        return padColumn(builder, columnStart, WIDTH_COLUMN);
+    }
+
+    static StringBuilder padColumn(StringBuilder builder, int columnStart, int columnWidth) {
+        final int padding = columnWidth - (builder.length() - columnStart);
+        if (padding > 0)
+            builder.append(SPACES, 0, padding);
+        return builder;
+    }
+
+    private static final class StatementLines extends AbstractList<String> {
+
+        private final List<String> headers;
+        private final List<String> operationLines;
+
+        private StatementLines(List<String> headers, List<String> operationLines) {
+            this.headers = headers;
+            this.operationLines = operationLines;
+        }
+
+        @Override
+        public String get(int index) {
+            if (index < headers.size())
+                return headers.get(index);
+
+            final int operationIndex = index - headers.size();
+            final int operationsCount = operationLines.size();
+            if (operationsCount == 0 && operationIndex == 0)
+                return NO_OPERATIONS_LINE;
+            if (operationIndex < Math.max(1, operationsCount))
+                return operationLines.get(operationIndex);
+            if (operationIndex == Math.max(1, operationsCount))
+                return LINE_SEPARATOR;
+            throw new IndexOutOfBoundsException(index);
+        }
+
+        @Override
+        public int size() {
+            return headers.size() + Math.max(1, operationLines.size()) + 1;
+        }
+    }
+}
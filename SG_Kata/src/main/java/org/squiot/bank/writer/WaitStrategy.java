@@ -0,0 +1,33 @@
+package org.squiot.bank.writer;
+
+import java.util.concurrent.locks.LockSupport;
+
+public enum WaitStrategy {
+    BUSY_SPIN,
+    YIELDING,
+    PARKING;
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final int YIELD_ATTEMPTS = 200;
+    private static final long PARK_NANOS = 50_000;
+
+    void idle(int attempt) {
+        switch (this) {
+            case BUSY_SPIN -> Thread.onSpinWait();
+            case YIELDING -> {
+                if (attempt < SPIN_ATTEMPTS)
+                    Thread.onSpinWait();
+                else
+                    Thread.yield();
+            }
+            case PARKING -> {
+                if (attempt < SPIN_ATTEMPTS)
+                    Thread.onSpinWait();
+                else if (attempt < YIELD_ATTEMPTS)
+                    Thread.yield();
+                else
+                    LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.squiot.bank.amount;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmountTest {
+
+    @Test
+    @DisplayName("should convert a monetary value to minor units")
+    void shouldConvertToMinorUnits() {
+        assertEquals(153250, Amount.of(new BigDecimal("1532.50")).minorUnits());
+        assertEquals(153200, Amount.of(1532).minorUnits());
+        assertEquals(Amount.of(new BigDecimal("10")), Amount.of(new BigDecimal("10.00")));
+        assertEquals(new BigDecimal("15.05"), Amount.ofMinorUnits(1505).toBigDecimal());
+    }
+
+    @Test
+    @DisplayName("should reject a value with more decimals than the currency scale")
+    void shouldRejectValueWithTooManyDecimals() {
+        assertThrows(ArithmeticException.class, () -> Amount.of(new BigDecimal("1.005")));
+    }
+
+    @Test
+    @DisplayName("should add and subtract amounts")
+    void shouldAddAndSubtract() {
+        final Amount balance = Amount.of(new BigDecimal("350.00"));
+
+        assertEquals(Amount.of(new BigDecimal("450.25")), balance.add(Amount.of(new BigDecimal("100.25"))));
+        assertEquals(Amount.of(new BigDecimal("-0.01")), Amount.ZERO.subtract(Amount.ofMinorUnits(1)));
+        assertTrue(Amount.ZERO.subtract(Amount.ofMinorUnits(1)).isNegative());
+        assertTrue(balance.isLessThan(Amount.of(400)));
+    }
+
+    @Test
+    @DisplayName("should fail instead of overflowing")
+    void shouldFailOnOverflow() {
+        final Amount max = Amount.ofMinorUnits(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.add(Amount.ofMinorUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Amount.ofMinorUnits(Long.MIN_VALUE).subtract(Amount.ofMinorUnits(1)));
+        assertThrows(ArithmeticException.class, () -> Amount.of(Long.MAX_VALUE));
+    }
+
+    @Test
+    @DisplayName("should print the amount with the currency scale")
+    void shouldPrintWithCurrencyScale() {
+        assertEquals("250.00", Amount.of(250).toString());
+        assertEquals("0.00", Amount.ZERO.toString());
+        assertEquals("12.05", Amount.ofMinorUnits(1205).toString());
+        assertEquals("-0.05", Amount.ofMinorUnits(-5).toString());
+        assertEquals("-3.10", Amount.ofMinorUnits(-310).toString());
+    }
+}
@@ -0,0 +1,77 @@
+package org.squiot.bank.metrics;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+
+    @Test
+    @DisplayName("should map every value into a bucket whose bounds contain it")
+    void shouldBucketValuesWithinBounds() {
+        for (long value : new long[]{0, 1, 31, 32, 33, 63, 64, 65, 1_000, 123_456_789, Long.MAX_VALUE}) {
+            final int index = LatencyHistogram.indexOf(value);
+
+            assertTrue(LatencyHistogram.highestValueOf(index) >= value);
+            assertTrue(index == 0 || LatencyHistogram.highestValueOf(index - 1) < value);
+        }
+    }
+
+    @Test
+    @DisplayName("should report percentiles within the bucket precision")
+    void shouldReportPercentiles() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (long nanos = 1; nanos <= 100_000; nanos++) {
+            histogram.record(nanos);
+        }
+
+        final LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(100_000, snapshot.count());
+        assertEquals(50_000, snapshot.p50Nanos(), 50_000 / 32d);
+        assertEquals(99_000, snapshot.p99Nanos(), 99_000 / 32d);
+        assertEquals(99_900, snapshot.p999Nanos(), 99_900 / 32d);
+        assertEquals(100_000, snapshot.maxNanos(), 100_000 / 32d);
+    }
+
+    @Test
+    @DisplayName("should report nothing once reset")
+    void shouldReset() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(42);
+
+        histogram.reset();
+
+        assertEquals(new LatencySnapshot(0, 0, 0, 0, 0), histogram.snapshot());
+    }
+
+    @Test
+    @DisplayName("should not lose samples recorded while intervals are drained")
+    void shouldDrainIntervalsWithoutLosingSamples() throws InterruptedException {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        final int threads = 4;
+        final int samplesPerThread = 100_000;
+        final Thread[] recorders = new Thread[threads];
+        for (int index = 0; index < threads; index++) {
+            recorders[index] = new Thread(() -> {
+                for (int sample = 0; sample < samplesPerThread; sample++) {
+                    histogram.record(sample);
+                }
+            });
+            recorders[index].start();
+        }
+
+        long drained = 0;
+        for (Thread recorder : recorders) {
+            while (recorder.isAlive()) {
+                drained += histogram.snapshotAndReset().count();
+            }
+            recorder.join();
+        }
+        drained += histogram.snapshotAndReset().count();
+
+        assertEquals((long) threads * samplesPerThread, drained);
+        assertEquals(0, histogram.snapshot().count());
+    }
+}
@@ -0,0 +1,161 @@
+package org.squiot.bank.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.IdempotencyKeyConflictException;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.operation.InstrumentedOperationService;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationRequest;
+import org.squiot.bank.operation.OperationService;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.operation.data.InstrumentedOperationDAO;
+import org.squiot.bank.writer.StatementLinesCache;
+import org.squiot.bank.writer.SummaryStatementFormatter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.time.Clock;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsRegistryTest {
+
+    private MetricsRegistry metricsRegistry;
+    private OperationService operationService;
+
+    @BeforeEach
+    void init() {
+        metricsRegistry = new MetricsRegistry();
+        operationService = new InstrumentedOperationService(new InMemoryOperationDAO(), Clock.systemUTC(),
+                new TableStatementFormatter(), statementDetails -> { }, metricsRegistry);
+    }
+
+    @AfterEach
+    void close() {
+        metricsRegistry.close();
+    }
+
+    @Test
+    @DisplayName("should time service, DAO, formatter and writer calls")
+    void shouldTimeHotPathCalls() throws NegativeAmountException {
+        final UUID accountId = UUID.randomUUID();
+
+        operationService.deposit(accountId, Amount.of(100));
+        operationService.deposit(accountId, Amount.of(100));
+        operationService.writeStatement(accountId);
+
+        assertEquals(2, metricsRegistry.timer("operation.deposit").getCount());
+        assertEquals(1, metricsRegistry.timer("operation.statement").getCount());
+        assertEquals(2, metricsRegistry.timer("dao.create").getCount());
+        assertEquals(3, metricsRegistry.timer("dao.findLastOperationByAccountId").getCount());
+        assertEquals(1, metricsRegistry.timer("formatter.formatStatement").getCount());
+        assertEquals(1, metricsRegistry.timer("writer.write").getCount());
+    }
+
+    @Test
+    @DisplayName("should time transfers, batches and idempotent operations")
+    void shouldTimeEveryServiceOperation() throws NegativeAmountException, InsufficientBalanceException, IdempotencyKeyConflictException {
+        final UUID accountId = UUID.randomUUID();
+
+        operationService.deposit(accountId, Amount.of(100), "first-deposit");
+        operationService.withdrawal(accountId, Amount.of(10), "first-withdrawal");
+        operationService.transfer(accountId, UUID.randomUUID(), Amount.of(10));
+        operationService.applyBatch(List.of(new OperationRequest(OperationType.DEPOSIT, accountId, Amount.of(5))));
+
+        assertEquals(1, metricsRegistry.timer("operation.idempotentDeposit").getCount());
+        assertEquals(1, metricsRegistry.timer("operation.idempotentWithdrawal").getCount());
+        assertEquals(1, metricsRegistry.timer("operation.transfer").getCount());
+        assertEquals(1, metricsRegistry.timer("operation.applyBatch").getCount());
+        assertEquals(0, metricsRegistry.timer("operation.deposit").getCount());
+        assertEquals(0, metricsRegistry.timer("operation.withdrawal").getCount());
+    }
+
+    @Test
+    @DisplayName("should count an idempotent rejection once, on the idempotent timer only")
+    void shouldCountIdempotentRejectionOnce() {
+        final UUID accountId = UUID.randomUUID();
+
+        assertThrows(InsufficientBalanceException.class, () -> operationService.withdrawal(accountId, Amount.of(10), "withdrawal"));
+
+        assertEquals(Map.of("InsufficientBalanceException", 1L), metricsRegistry.timer("operation.idempotentWithdrawal").getRejections());
+        assertEquals(Map.of(), metricsRegistry.timer("operation.withdrawal").getRejections());
+        assertEquals(0, metricsRegistry.timer("operation.withdrawal").getCount());
+    }
+
+    @Test
+    @DisplayName("should time a cached statement once when a summary formatter falls back to the full statement")
+    void shouldTimeCachedStatementFallbackOnce() throws NegativeAmountException {
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(1000);
+        final OperationService summaryOperationService = new InstrumentedOperationService(new InMemoryOperationDAO(), Clock.systemUTC(),
+                new SummaryStatementFormatter(RollupPeriod.MONTH), statementDetails -> { }, metricsRegistry);
+        final UUID accountId = UUID.randomUUID();
+        summaryOperationService.deposit(accountId, Amount.of(100));
+
+        summaryOperationService.writeStatement(accountId, statementLinesCache);
+
+        assertEquals(1, metricsRegistry.timer("operation.statement").getCount());
+        assertEquals(1, metricsRegistry.timer("formatter.formatStatement").getCount());
+        assertEquals(0, statementLinesCache.cachedAccounts());
+    }
+
+    @Test
+    @DisplayName("should time a streamed history until the stream is closed")
+    void shouldTimeStreamConsumption() throws NegativeAmountException {
+        final InMemoryOperationDAO operationDAO = new InMemoryOperationDAO();
+        final InstrumentedOperationDAO instrumentedOperationDAO = new InstrumentedOperationDAO(operationDAO, metricsRegistry);
+        final UUID accountId = UUID.randomUUID();
+        new OperationService(operationDAO, Clock.systemUTC(), new TableStatementFormatter(), statementDetails -> { })
+                .deposit(accountId, Amount.of(100));
+
+        try (Stream<Operation> operations = instrumentedOperationDAO.streamSortedOperationsByAccountId(accountId)) {
+            assertEquals(1, operations.count());
+            assertEquals(0, metricsRegistry.timer("dao.streamSortedOperationsByAccountId").getCount());
+        }
+
+        assertEquals(1, metricsRegistry.timer("dao.streamSortedOperationsByAccountId").getCount());
+        operationService.writeStreamedStatement(accountId);
+        assertEquals(1, metricsRegistry.timer("formatter.formatStatement").getCount());
+    }
+
+    @Test
+    @DisplayName("should count rejections per exception type")
+    void shouldCountRejections() {
+        final UUID accountId = UUID.randomUUID();
+
+        assertThrows(InsufficientBalanceException.class, () -> operationService.withdrawal(accountId, Amount.of(10)));
+        assertThrows(InsufficientBalanceException.class, () -> operationService.withdrawal(accountId, Amount.of(10)));
+        assertThrows(NegativeAmountException.class, () -> operationService.withdrawal(accountId, Amount.of(-10)));
+
+        assertEquals(Map.of("InsufficientBalanceException", 2L, "NegativeAmountException", 1L),
+                metricsRegistry.timer("operation.withdrawal").getRejections());
+        assertTrue(metricsRegistry.dump().contains("rejections={InsufficientBalanceException=2, NegativeAmountException=1}"));
+    }
+
+    @Test
+    @DisplayName("should expose every timer as an MBean")
+    void shouldRegisterMBeans() throws Exception {
+        final MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+        metricsRegistry.registerMBeans(mBeanServer, "org.squiot.bank");
+        operationService.deposit(UUID.randomUUID(), Amount.of(100));
+        metricsRegistry.timer("custom.timer");
+
+        assertEquals(1L, mBeanServer.getAttribute(new ObjectName("org.squiot.bank:type=Latency,name=\"operation.deposit\""), "Count"));
+        assertTrue(mBeanServer.isRegistered(new ObjectName("org.squiot.bank:type=Latency,name=\"custom.timer\"")));
+
+        metricsRegistry.close();
+        assertFalse(mBeanServer.isRegistered(new ObjectName("org.squiot.bank:type=Latency,name=\"custom.timer\"")));
+    }
+}
@@ -0,0 +1,137 @@
+package org.squiot.bank.operation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.writer.ConsoleStatementWriter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AsyncOperationServiceTest {
+
+    private InMemoryOperationDAO operationDAO;
+    private OperationService operationService;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void init() {
+        operationDAO = new InMemoryOperationDAO();
+        operationService = new OperationService(operationDAO, Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should apply the operations of an account in submission order")
+    void shouldKeepSubmissionOrderPerAccount() {
+        final AsyncOperationService asyncOperationService = new AsyncOperationService(operationService, executor, 10_000);
+        final List<UUID> accountIds = List.of(UUID.randomUUID(), UUID.randomUUID(), UUID.randomUUID());
+        final List<CompletableFuture<Operation>> futures = new ArrayList<>();
+
+        for (int i = 1; i <= 1000; i++) {
+            for (UUID accountId : accountIds) {
+                futures.add(asyncOperationService.deposit(accountId, Amount.of(i)));
+            }
+        }
+        for (UUID accountId : accountIds) {
+            futures.add(asyncOperationService.withdrawal(accountId, Amount.of(500_500)));
+        }
+        CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+        for (UUID accountId : accountIds) {
+            final List<Operation> history = operationDAO.findAllSortedOperationsByAccountId(accountId);
+            for (int i = 1; i <= 1000; i++) {
+                assertEquals(Amount.of(i), history.get(i - 1).amount());
+            }
+            assertEquals(Amount.ZERO, history.get(1000).balance());
+        }
+    }
+
+    @Test
+    @DisplayName("should complete the future with the business exception")
+    void shouldCompleteWithBusinessException() {
+        final AsyncOperationService asyncOperationService = new AsyncOperationService(operationService, executor);
+        final UUID accountId = UUID.randomUUID();
+
+        final ExecutionException negative = assertThrows(ExecutionException.class, () -> asyncOperationService.deposit(accountId, Amount.of(-1)).get());
+        final ExecutionException insufficient = assertThrows(ExecutionException.class, () -> asyncOperationService.withdrawal(accountId, Amount.of(1)).get());
+
+        assertInstanceOf(NegativeAmountException.class, negative.getCause());
+        assertInstanceOf(InsufficientBalanceException.class, insufficient.getCause());
+    }
+
+    @Test
+    @DisplayName("should reject operations once the mailbox of the account is full")
+    void shouldRejectWhenMailboxIsFull() {
+        final List<Runnable> parked = new ArrayList<>();
+        final AsyncOperationService asyncOperationService = new AsyncOperationService(operationService, parked::add, 2);
+        final UUID accountId = UUID.randomUUID();
+
+        final CompletableFuture<Operation> first = asyncOperationService.deposit(accountId, Amount.of(1));
+        final CompletableFuture<Operation> second = asyncOperationService.deposit(accountId, Amount.of(2));
+        final CompletableFuture<Operation> rejected = asyncOperationService.deposit(accountId, Amount.of(3));
+        final CompletableFuture<Operation> otherAccount = asyncOperationService.deposit(UUID.randomUUID(), Amount.of(4));
+
+        assertEquals(2, asyncOperationService.pendingOperations(accountId));
+        final ExecutionException failure = assertThrows(ExecutionException.class, rejected::get);
+        assertInstanceOf(RejectedExecutionException.class, failure.getCause());
+
+        parked.forEach(Runnable::run);
+
+        assertEquals(Amount.of(3), second.join().balance());
+        assertEquals(Amount.of(1), first.join().balance());
+        assertEquals(Amount.of(4), otherAccount.join().balance());
+        assertEquals(0, asyncOperationService.pendingOperations(accountId));
+    }
+
+    @Test
+    @DisplayName("should keep serving an account after one of its operations threw an error")
+    void shouldKeepServingAfterError() {
+        final List<Runnable> parked = new ArrayList<>();
+        final InMemoryOperationDAO failingOnceDAO = new InMemoryOperationDAO() {
+            private boolean failed;
+
+            @Override
+            public Operation create(Operation operation) {
+                if (!failed) {
+                    failed = true;
+                    throw new AssertionError("Simulated error.");
+                }
+                return super.create(operation);
+            }
+        };
+        final OperationService failingOnceService = new OperationService(failingOnceDAO, Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+        final AsyncOperationService asyncOperationService = new AsyncOperationService(failingOnceService, parked::add, 10);
+        final UUID accountId = UUID.randomUUID();
+
+        final CompletableFuture<Operation> failed = asyncOperationService.deposit(accountId, Amount.of(1));
+        final CompletableFuture<Operation> next = asyncOperationService.deposit(accountId, Amount.of(2));
+        assertThrows(AssertionError.class, () -> parked.remove(0).run());
+        parked.remove(0).run();
+
+        final ExecutionException failure = assertThrows(ExecutionException.class, failed::get);
+        assertInstanceOf(AssertionError.class, failure.getCause());
+        assertEquals(Amount.of(2), next.join().balance());
+        assertTrue(parked.isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package org.squiot.bank.operation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.NegativeAmountException;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.writer.ConsoleStatementWriter;
+import org.squiot.bank.writer.StatementWriter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BulkStatementServiceTest {
+
+    private OperationService operationService;
+    private ForkJoinPool pool;
+    private final List<UUID> accountIds = new ArrayList<>();
+
+    @BeforeEach
+    void init() throws NegativeAmountException {
+        operationService = new OperationService(new InMemoryOperationDAO(), Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+        pool = new ForkJoinPool(4);
+
+        for (int account = 0; account < 500; account++) {
+            final UUID accountId = UUID.randomUUID();
+            operationService.deposit(accountId, Amount.of(account));
+            operationService.deposit(accountId, Amount.of(1));
+            accountIds.add(accountId);
+        }
+    }
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should write the statement of every account to its own writer")
+    void shouldWriteAllStatements() {
+        final BulkStatementService bulkStatementService = new BulkStatementService(operationService, pool, 8);
+        final Map<UUID, List<String>> statements = new ConcurrentHashMap<>();
+
+        final BulkStatementReport report = bulkStatementService.writeAllStatements(
+                accountId -> lines -> statements.put(accountId, lines));
+
+        assertEquals(500, report.total());
+        assertEquals(500, report.written());
+        assertEquals(0, report.failed());
+        assertEquals(500, statements.size());
+        for (UUID accountId : accountIds) {
+            assertTrue(statements.get(accountId).get(3).contains(accountId.toString()));
+        }
+    }
+
+    @Test
+    @DisplayName("should never hold more statements than the configured cap")
+    void shouldCapStatementsInFlight() {
+        final BulkStatementService bulkStatementService = new BulkStatementService(operationService, pool, 2);
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final StatementWriter statementWriter = lines -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.onSpinWait();
+            inFlight.decrementAndGet();
+        };
+
+        final BulkStatementReport report = bulkStatementService.writeStatements(accountIds, accountId -> statementWriter);
+
+        assertEquals(500, report.written());
+        assertTrue(maxInFlight.get() <= 2);
+    }
+
+    @Test
+    @DisplayName("should count failed statements and keep writing the others")
+    void shouldReportFailures() {
+        final BulkStatementService bulkStatementService = new BulkStatementService(operationService, pool, 8);
+        final UUID failingAccountId = accountIds.get(42);
+
+        final BulkStatementReport report = bulkStatementService.writeStatements(accountIds, accountId -> lines -> {
+            if (accountId.equals(failingAccountId))
+                throw new IllegalStateException("Target unavailable.");
+        });
+
+        assertEquals(499, report.written());
+        assertEquals(1, report.failed());
+        assertEquals(500, report.completed());
+        assertTrue(report.statementsPerSecond() > 0);
+    }
+}
@@ -0,0 +1,100 @@
+package org.squiot.bank.operation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.amount.Amount;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyRegistryTest {
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2022-10-28T16:08:00.00Z"));
+
+    @Test
+    @DisplayName("should find an operation by its account and idempotency key only")
+    void shouldFindOperationByAccountAndKey() {
+        final IdempotencyRegistry idempotencyRegistry = new IdempotencyRegistry(clock);
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = deposit(accountId);
+
+        idempotencyRegistry.register(accountId, "request-1", operation);
+
+        assertEquals(Optional.of(operation), idempotencyRegistry.find(accountId, "request-1"));
+        assertEquals(Optional.empty(), idempotencyRegistry.find(accountId, "request-2"));
+        assertEquals(Optional.empty(), idempotencyRegistry.find(UUID.randomUUID(), "request-1"));
+    }
+
+    @Test
+    @DisplayName("should forget keys older than two windows")
+    void shouldForgetExpiredKeys() {
+        final IdempotencyRegistry idempotencyRegistry = new IdempotencyRegistry(clock, Duration.ofMinutes(10), 1000, 4);
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = deposit(accountId);
+        idempotencyRegistry.register(accountId, "request-1", operation);
+
+        clock.advance(Duration.ofMinutes(15));
+        assertEquals(Optional.of(operation), idempotencyRegistry.find(accountId, "request-1"));
+
+        clock.advance(Duration.ofMinutes(10));
+        assertEquals(Optional.empty(), idempotencyRegistry.find(accountId, "request-1"));
+        assertEquals(0, idempotencyRegistry.forcedRotations());
+    }
+
+    @Test
+    @DisplayName("should stay bounded whatever the number of registered keys and count the rotations it forces")
+    void shouldStayBounded() {
+        final IdempotencyRegistry idempotencyRegistry = new IdempotencyRegistry(clock, Duration.ofHours(1), 1000, 4);
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = deposit(accountId);
+
+        for (int i = 0; i < 100_000; i++) {
+            idempotencyRegistry.register(accountId, "request-" + i, operation);
+        }
+
+        assertTrue(idempotencyRegistry.size() <= 1000);
+        assertEquals(Optional.of(operation), idempotencyRegistry.find(accountId, "request-99999"));
+        assertEquals(Optional.empty(), idempotencyRegistry.find(accountId, "request-0"));
+        assertTrue(idempotencyRegistry.forcedRotations() > 0);
+    }
+
+    private Operation deposit(UUID accountId) {
+        return new Operation(OperationType.DEPOSIT, accountId, Amount.of(10), LocalDateTime.now(clock), Amount.of(10));
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.squiot.bank.operation;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.writer.ConsoleStatementWriter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class OperationServiceConcurrencyTest {
+
+    private static final int THREADS = 8;
+    private static final int OPERATIONS_PER_THREAD = 500;
+
+    private InMemoryOperationDAO operationDAO;
+    private OperationService operationService;
+
+    @BeforeEach
+    void init() {
+        operationDAO = new InMemoryOperationDAO();
+        operationService = new OperationService(operationDAO, Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+    }
+
+    @Test
+    @DisplayName("should not lose any concurrent deposit on the same account")
+    void shouldNotLoseConcurrentDeposits() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                operationService.deposit(accountId, Amount.of(1));
+            }
+            return null;
+        });
+
+        final Amount expectedBalance = Amount.of((long) THREADS * OPERATIONS_PER_THREAD);
+        assertEquals(expectedBalance, operationDAO.findLastOperationByAccountId(accountId).orElseThrow().balance());
+        assertBalanceChain(operationDAO.findAllSortedOperationsByAccountId(accountId));
+    }
+
+    @Test
+    @DisplayName("should never overdraw an account with concurrent withdrawals")
+    void shouldNeverOverdrawWithConcurrentWithdrawals() throws Exception {
+        final UUID accountId = UUID.randomUUID();
+        final int initialBalance = THREADS * OPERATIONS_PER_THREAD / 2;
+        operationService.deposit(accountId, Amount.of(initialBalance));
+        final AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                try {
+                    operationService.withdrawal(accountId, Amount.of(1));
+                } catch (InsufficientBalanceException e) {
+                    rejected.incrementAndGet();
+                }
+            }
+            return null;
+        });
+
+        assertEquals(Amount.ZERO, operationDAO.findLastOperationByAccountId(accountId).orElseThrow().balance());
+        assertEquals(THREADS * OPERATIONS_PER_THREAD - initialBalance, rejected.get());
+        assertBalanceChain(operationDAO.findAllSortedOperationsByAccountId(accountId));
+    }
+
+    @Test
+    @DisplayName("should keep the total balance with concurrent transfers in both directions")
+    void shouldKeepTotalBalanceWithConcurrentTransfers() throws Exception {
+        final List<UUID> accountIds = new ArrayList<>();
+        for (int account = 0; account < 4; account++) {
+            final UUID accountId = UUID.randomUUID();
+            operationService.deposit(accountId, Amount.of(100));
+            accountIds.add(accountId);
+        }
+        final AtomicInteger thread = new AtomicInteger();
+        final AtomicInteger succeededTransfers = new AtomicInteger();
+
+        runConcurrently(() -> {
+            final int offset = thread.getAndIncrement();
+            for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                final UUID fromAccountId = accountIds.get((offset + i) % accountIds.size());
+                final UUID toAccountId = accountIds.get((offset + i + 1 + offset % 2) % accountIds.size());
+                try {
+                    operationService.transfer(fromAccountId, toAccountId, Amount.of(7));
+                    succeededTransfers.incrementAndGet();
+                } catch (InsufficientBalanceException ignored) {
+                }
+            }
+            return null;
+        });
+
+        Amount total = Amount.ZERO;
+        long debits = 0;
+        for (UUID accountId : accountIds) {
+            final List<Operation> operations = operationDAO.findAllSortedOperationsByAccountId(accountId);
+            total = total.add(operations.get(operations.size() - 1).balance());
+            debits += operations.stream().filter(operation -> operation.operationType() == OperationType.TRANSFER_OUT).count();
+            assertBalanceChain(operations);
+        }
+        assertEquals(Amount.of(400), total);
+        assertEquals(succeededTransfers.get(), debits);
+    }
+
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<Void>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        for (Future<Void> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    private static void assertBalanceChain(List<Operation> operations) {
+        Amount balance = Amount.ZERO;
+        for (Operation operation : operations) {
+            balance = operation.operationType() == OperationType.DEPOSIT || operation.operationType() == OperationType.TRANSFER_IN
+                    ? balance.add(operation.amount())
+                    : balance.subtract(operation.amount());
+            assertEquals(balance, operation.balance());
+            assertFalse(balance.isNegative());
+        }
+    }
+}
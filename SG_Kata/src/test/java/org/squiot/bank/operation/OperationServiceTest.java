@@ -8,23 +8,33 @@ import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StatementPeriod;
+import org.squiot.bank.account.StreamedAccountStatement;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.IdempotencyKeyConflictException;
 import org.squiot.bank.exception.InsufficientBalanceException;
 import org.squiot.bank.exception.NegativeAmountException;
 import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.writer.LineStatementFormatter;
 import org.squiot.bank.writer.StatementFormatter;
+import org.squiot.bank.writer.StatementLinesCache;
 import org.squiot.bank.writer.StatementWriter;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.Clock;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.when;
 
@@ -38,6 +48,8 @@ class OperationServiceTest {
     private StatementFormatter statementFormatter;
     @Mock
     private StatementWriter statementWriter;
+    @Mock
+    private LineStatementFormatter lineStatementFormatter;
 
     private final Clock clock = Clock.fixed(Instant.parse("2022-10-28T16:08:00.00Z"), ZoneOffset.UTC);
 
@@ -51,13 +63,13 @@ class OperationServiceTest {
     void shouldDepositAmountOnAccountWithoutLastOperation() throws NegativeAmountException{
         final LocalDateTime date = LocalDateTime.now(clock);
         final UUID accountId = UUID.randomUUID();
-        final BigDecimal expectedAmountValue = BigDecimal.valueOf(1532).setScale(2, RoundingMode.HALF_EVEN);
+        final Amount expectedAmountValue = Amount.of(1532);
         final Operation expectedOperation = new Operation(
                 OperationType.DEPOSIT,
                 accountId,
                 expectedAmountValue,
                 date,
-                BigDecimal.valueOf(1532).setScale(2, RoundingMode.HALF_EVEN)
+                Amount.of(1532)
         );
         when(operationDAO.create(expectedOperation))
                 .thenReturn(expectedOperation);
@@ -76,13 +88,13 @@ class OperationServiceTest {
     void shouldDepositAmountOnAccountWithPreviousOperation() throws NegativeAmountException{
         final LocalDateTime date = LocalDateTime.now(clock);
         final UUID accountId = UUID.randomUUID();
-        final BigDecimal expectedAmountValue = BigDecimal.valueOf(100).setScale(2,RoundingMode.HALF_EVEN);
+        final Amount expectedAmountValue = Amount.of(100);
         final Operation expectedOperation = new Operation(
                 OperationType.DEPOSIT,
                 accountId,
                 expectedAmountValue,
                 date,
-                BigDecimal.valueOf(250).setScale(2, RoundingMode.HALF_EVEN)
+                Amount.of(250)
         );
 
         when(operationDAO.findLastOperationByAccountId(accountId))
@@ -90,9 +102,9 @@ class OperationServiceTest {
                         Optional.of(new Operation(
                                 OperationType.DEPOSIT,
                                 accountId,
-                                BigDecimal.valueOf(150).setScale(2,RoundingMode.HALF_EVEN),
+                                Amount.of(150),
                                 date,
-                                BigDecimal.valueOf(150).setScale(2, RoundingMode.HALF_EVEN)
+                                Amount.of(150)
                         ))
                 );
 
@@ -107,12 +119,25 @@ class OperationServiceTest {
         orderVerifier.verifyNoMoreInteractions();
     }
 
+    @Test
+    @DisplayName("should never date an operation before the last one of the account when the clock steps back")
+    void shouldKeepDatesNonDecreasingWhenClockStepsBack() throws NegativeAmountException {
+        final UUID accountId = UUID.randomUUID();
+        final LocalDateTime lastDate = LocalDateTime.now(clock).plusMinutes(5);
+        final Operation lastOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(100), lastDate, Amount.of(100));
+        final Operation expectedOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(50), lastDate, Amount.of(150));
+        when(operationDAO.findLastOperationByAccountId(accountId)).thenReturn(Optional.of(lastOperation));
+        when(operationDAO.create(expectedOperation)).thenReturn(expectedOperation);
+
+        assertEquals(expectedOperation, operationService.deposit(accountId, Amount.of(50)));
+    }
+
     @Test
     @DisplayName("should throw negative amount exception when deposit negative amount")
     void shouldThrowNegativeAmountExceptionWhenDepositNegativeAmount(){
         final LocalDateTime date = LocalDateTime.now(clock);
         final UUID accountId = UUID.randomUUID();
-        final BigDecimal expectedAmountValue = BigDecimal.valueOf(-100);
+        final Amount expectedAmountValue = Amount.of(-100);
 
         assertThrows(NegativeAmountException.class,()-> operationService.deposit(accountId,expectedAmountValue));
     }
@@ -122,13 +147,13 @@ class OperationServiceTest {
     void shouldWithdrawAmountOnAccount() throws NegativeAmountException, InsufficientBalanceException {
         final LocalDateTime date = LocalDateTime.now(clock);
         final UUID accountId = UUID.randomUUID();
-        final BigDecimal expectedAmountValue = BigDecimal.valueOf(100).setScale(2, RoundingMode.HALF_EVEN);
+        final Amount expectedAmountValue = Amount.of(100);
         final Operation expectedOperation = new Operation(
                 OperationType.WITHDRAWAL,
                 accountId,
                 expectedAmountValue,
                 date,
-                BigDecimal.valueOf(250).setScale(2, RoundingMode.HALF_EVEN)
+                Amount.of(250)
         );
 
         when(operationDAO.findLastOperationByAccountId(accountId))
@@ -136,9 +161,9 @@ class OperationServiceTest {
                         Optional.of(new Operation(
                                 OperationType.DEPOSIT,
                                 accountId,
-                                BigDecimal.valueOf(350).setScale(2,RoundingMode.HALF_EVEN),
+                                Amount.of(350),
                                 date,
-                                BigDecimal.valueOf(350).setScale(2, RoundingMode.HALF_EVEN)
+                                Amount.of(350)
                         ))
                 );
         when(operationDAO.create(expectedOperation)).thenReturn(expectedOperation);
@@ -156,7 +181,7 @@ class OperationServiceTest {
     @DisplayName("should throw negative amount exception when withdrawal negative amount")
     void shouldThrowNegativeAmountExceptionWhenWithdrawNegativeAmount(){
         final UUID accountId = UUID.randomUUID();
-        final BigDecimal expectedAmountValue = BigDecimal.valueOf(-100).setScale(2,RoundingMode.HALF_EVEN);
+        final Amount expectedAmountValue = Amount.of(-100);
 
         assertThrows(NegativeAmountException.class,()-> operationService.withdrawal(accountId,expectedAmountValue));
     }
@@ -166,16 +191,16 @@ class OperationServiceTest {
     void shouldThrowInsufficientBalanceExceptionWhenBeingOverdraft() {
         final LocalDateTime date = LocalDateTime.now(clock);
         final UUID accountId = UUID.randomUUID();
-        final BigDecimal expectedAmountValue = BigDecimal.valueOf(400);
+        final Amount expectedAmountValue = Amount.of(400);
 
         when(operationDAO.findLastOperationByAccountId(accountId))
                 .thenReturn(
                         Optional.of(new Operation(
                                 OperationType.DEPOSIT,
                                 accountId,
-                                BigDecimal.valueOf(350),
+                                Amount.of(350),
                                 date,
-                                BigDecimal.valueOf(350).setScale(2, RoundingMode.HALF_EVEN)
+                                Amount.of(350)
                         ))
                 );
 
@@ -189,9 +214,9 @@ class OperationServiceTest {
                 new Operation(
                         OperationType.DEPOSIT,
                         accountId,
-                        BigDecimal.valueOf(350).setScale(2,RoundingMode.HALF_EVEN),
+                        Amount.of(350),
                         LocalDateTime.now(clock),
-                        BigDecimal.valueOf(350).setScale(2,RoundingMode.HALF_EVEN)
+                        Amount.of(350)
                 )
         );
         final List<String> formattedStatement = List.of(
@@ -201,7 +226,7 @@ class OperationServiceTest {
                 accountId,
                 LocalDateTime.now(clock),
                 operations,
-                BigDecimal.valueOf(350).setScale(2,RoundingMode.HALF_EVEN)
+                Amount.of(350)
         );
         when(operationDAO.findAllSortedOperationsByAccountId(accountId)).thenReturn(operations);
         when(operationDAO.findLastOperationByAccountId(accountId)).thenReturn(Optional.ofNullable(operations.get(0)));
@@ -217,4 +242,249 @@ class OperationServiceTest {
         orderVerifier.verifyNoMoreInteractions();
     }
 
-}
\ No newline at end of file
+    @Test
+    @DisplayName("should apply a batch with a running balance and one result per operation")
+    void shouldApplyBatchWithRunningBalance() {
+        final LocalDateTime date = LocalDateTime.now(clock);
+        final UUID firstAccountId = UUID.randomUUID();
+        final UUID secondAccountId = UUID.randomUUID();
+        final List<OperationRequest> requests = List.of(
+                new OperationRequest(OperationType.DEPOSIT, firstAccountId, Amount.of(100)),
+                new OperationRequest(OperationType.WITHDRAWAL, secondAccountId, Amount.of(50)),
+                new OperationRequest(OperationType.WITHDRAWAL, firstAccountId, Amount.of(250)),
+                new OperationRequest(OperationType.DEPOSIT, secondAccountId, Amount.of(-10)),
+                new OperationRequest(OperationType.WITHDRAWAL, firstAccountId, Amount.of(300))
+        );
+        final Operation expectedFirstDeposit = new Operation(OperationType.DEPOSIT, firstAccountId, Amount.of(100), date, Amount.of(300));
+        final Operation expectedSecondWithdrawal = new Operation(OperationType.WITHDRAWAL, firstAccountId, Amount.of(250), date, Amount.of(50));
+
+        when(operationDAO.findLastOperationsByAccountIds(Set.of(firstAccountId, secondAccountId)))
+                .thenReturn(Map.of(firstAccountId, new Operation(OperationType.DEPOSIT, firstAccountId, Amount.of(200), date, Amount.of(200))));
+        when(operationDAO.createAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        final List<OperationResult> results = operationService.applyBatch(requests);
+
+        assertEquals(5, results.size());
+        assertEquals(expectedFirstDeposit, results.get(0).operation());
+        assertInstanceOf(InsufficientBalanceException.class, results.get(1).failure());
+        assertEquals(expectedSecondWithdrawal, results.get(2).operation());
+        assertInstanceOf(NegativeAmountException.class, results.get(3).failure());
+        assertInstanceOf(InsufficientBalanceException.class, results.get(4).failure());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(requests.get(i), results.get(i).request());
+        }
+
+        final InOrder orderVerifier = inOrder(operationDAO);
+        orderVerifier.verify(operationDAO).findLastOperationsByAccountIds(Set.of(firstAccountId, secondAccountId));
+        orderVerifier.verify(operationDAO).createAll(List.of(expectedFirstDeposit, expectedSecondWithdrawal));
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void shouldWriteStreamedAccountStatement(){
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(350), LocalDateTime.now(clock), Amount.of(350));
+        final Stream<Operation> operations = Stream.of(operation);
+        final Stream<String> formattedStatement = Stream.of("Operation 1");
+        final StreamedAccountStatement accountStatement = new StreamedAccountStatement(
+                accountId,
+                LocalDateTime.now(clock),
+                operations,
+                Amount.of(350)
+        );
+        when(operationDAO.streamSortedOperationsByAccountId(accountId)).thenReturn(operations);
+        when(operationDAO.findLastOperationByAccountId(accountId)).thenReturn(Optional.of(operation));
+        when(statementFormatter.formatStatement(accountStatement)).thenReturn(formattedStatement);
+
+        operationService.writeStreamedStatement(accountId);
+
+        final InOrder orderVerifier = inOrder(operationDAO,statementFormatter,statementWriter);
+        orderVerifier.verify(operationDAO).streamSortedOperationsByAccountId(accountId);
+        orderVerifier.verify(operationDAO).findLastOperationByAccountId(accountId);
+        orderVerifier.verify(statementFormatter).formatStatement(accountStatement);
+        orderVerifier.verify(statementWriter).write(formattedStatement);
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void shouldWriteFormattedAccountStatementForPeriod(){
+        final UUID accountId = UUID.randomUUID();
+        final LocalDateTime from = LocalDateTime.of(2022, 10, 1, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2022, 11, 1, 0, 0);
+        final List<Operation> operations = List.of(
+                new Operation(OperationType.DEPOSIT, accountId, Amount.of(100), LocalDateTime.of(2022, 10, 5, 9, 0), Amount.of(300)),
+                new Operation(OperationType.WITHDRAWAL, accountId, Amount.of(50), LocalDateTime.of(2022, 10, 8, 9, 0), Amount.of(250))
+        );
+        final Operation previousOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(200), LocalDateTime.of(2022, 9, 30, 9, 0), Amount.of(200));
+        final List<String> formattedStatement = List.of("Operation 1", "Operation 2");
+        final AccountStatement accountStatement = new AccountStatement(
+                accountId,
+                LocalDateTime.now(clock),
+                operations,
+                Amount.of(250),
+                new StatementPeriod(from, to, Amount.of(200))
+        );
+        when(operationDAO.findSortedOperationsByAccountIdBetween(accountId, from, to)).thenReturn(operations);
+        when(operationDAO.findLastOperationByAccountIdBefore(accountId, from)).thenReturn(Optional.of(previousOperation));
+        when(statementFormatter.formatStatement(accountStatement)).thenReturn(formattedStatement);
+
+        operationService.writeStatement(accountId, from, to);
+
+        final InOrder orderVerifier = inOrder(operationDAO,statementFormatter,statementWriter);
+        orderVerifier.verify(operationDAO).findSortedOperationsByAccountIdBetween(accountId, from, to);
+        orderVerifier.verify(operationDAO).findLastOperationByAccountIdBefore(accountId, from);
+        orderVerifier.verify(statementFormatter).formatStatement(accountStatement);
+        orderVerifier.verify(statementWriter).write(formattedStatement);
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    void shouldWriteCachedAccountStatementFromNewOperationsOnly(){
+        final OperationService lineOperationService = new OperationService(operationDAO, clock, lineStatementFormatter, statementWriter);
+        final UUID accountId = UUID.randomUUID();
+        final Operation firstOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(350), LocalDateTime.now(clock), Amount.of(350));
+        final Operation secondOperation = new Operation(OperationType.WITHDRAWAL, accountId, Amount.of(50), LocalDateTime.now(clock), Amount.of(300));
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(1000);
+        when(operationDAO.findSortedOperationsByAccountIdFrom(accountId, 0)).thenReturn(List.of(firstOperation));
+        when(operationDAO.findSortedOperationsByAccountIdFrom(accountId, 1)).thenReturn(List.of(secondOperation));
+        when(lineStatementFormatter.formatOperationLine(any())).thenReturn("operation");
+
+        lineOperationService.writeStatement(accountId, statementLinesCache);
+        lineOperationService.writeStatement(accountId, statementLinesCache);
+
+        final InOrder orderVerifier = inOrder(operationDAO,lineStatementFormatter,statementWriter);
+        orderVerifier.verify(operationDAO).findSortedOperationsByAccountIdFrom(accountId, 0);
+        orderVerifier.verify(lineStatementFormatter).formatOperationLine(firstOperation);
+        orderVerifier.verify(lineStatementFormatter).formatStatement(eq(accountId), any(), eq(Amount.of(350)), eq(List.of("operation")));
+        orderVerifier.verify(statementWriter).write(anyList());
+        orderVerifier.verify(operationDAO).findSortedOperationsByAccountIdFrom(accountId, 1);
+        orderVerifier.verify(lineStatementFormatter).formatOperationLine(secondOperation);
+        orderVerifier.verify(lineStatementFormatter).formatStatement(eq(accountId), any(), eq(Amount.of(300)), eq(List.of("operation", "operation")));
+        orderVerifier.verify(statementWriter).write(anyList());
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("should write the full statement when the formatter doesn't render one line per operation")
+    void shouldWriteUncachedStatementWithNonLineFormatter(){
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(350), LocalDateTime.now(clock), Amount.of(350));
+        final AccountStatement accountStatement = new AccountStatement(accountId, LocalDateTime.now(clock), List.of(operation), Amount.of(350));
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(1000);
+        when(operationDAO.findAllSortedOperationsByAccountId(accountId)).thenReturn(List.of(operation));
+        when(operationDAO.findLastOperationByAccountId(accountId)).thenReturn(Optional.of(operation));
+        when(statementFormatter.formatStatement(accountStatement)).thenReturn(List.of("statement"));
+
+        operationService.writeStatement(accountId, statementLinesCache);
+
+        final InOrder orderVerifier = inOrder(statementFormatter, statementWriter);
+        orderVerifier.verify(statementFormatter).formatStatement(accountStatement);
+        orderVerifier.verify(statementWriter).write(List.of("statement"));
+        orderVerifier.verifyNoMoreInteractions();
+        assertEquals(0, statementLinesCache.cachedAccounts());
+    }
+
+    @Test
+    @DisplayName("should debit and credit both accounts in a single write")
+    void shouldTransferBetweenAccounts() throws NegativeAmountException, InsufficientBalanceException {
+        final UUID fromAccountId = UUID.randomUUID();
+        final UUID toAccountId = UUID.randomUUID();
+        final Operation fromLastOperation = new Operation(OperationType.DEPOSIT, fromAccountId, Amount.of(300), LocalDateTime.now(clock), Amount.of(300));
+        final Operation debit = new Operation(OperationType.TRANSFER_OUT, fromAccountId, Amount.of(120), LocalDateTime.now(clock), Amount.of(180));
+        final Operation credit = new Operation(OperationType.TRANSFER_IN, toAccountId, Amount.of(120), LocalDateTime.now(clock), Amount.of(120));
+        when(operationDAO.findLastOperationsByAccountIds(List.of(fromAccountId, toAccountId))).thenReturn(Map.of(fromAccountId, fromLastOperation));
+        when(operationDAO.createAll(List.of(debit, credit))).thenReturn(List.of(debit, credit));
+
+        final Transfer transfer = operationService.transfer(fromAccountId, toAccountId, Amount.of(120));
+
+        assertEquals(new Transfer(debit, credit), transfer);
+        final InOrder orderVerifier = inOrder(operationDAO);
+        orderVerifier.verify(operationDAO).findLastOperationsByAccountIds(List.of(fromAccountId, toAccountId));
+        orderVerifier.verify(operationDAO).createAll(List.of(debit, credit));
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("should date both sides of a transfer no earlier than the last operation of either account")
+    void shouldDateTransferAfterLastOperations() throws NegativeAmountException, InsufficientBalanceException {
+        final UUID fromAccountId = UUID.randomUUID();
+        final UUID toAccountId = UUID.randomUUID();
+        final LocalDateTime toLastDate = LocalDateTime.now(clock).plusMinutes(5);
+        final Operation fromLastOperation = new Operation(OperationType.DEPOSIT, fromAccountId, Amount.of(300), LocalDateTime.now(clock), Amount.of(300));
+        final Operation toLastOperation = new Operation(OperationType.DEPOSIT, toAccountId, Amount.of(10), toLastDate, Amount.of(10));
+        final Operation debit = new Operation(OperationType.TRANSFER_OUT, fromAccountId, Amount.of(120), toLastDate, Amount.of(180));
+        final Operation credit = new Operation(OperationType.TRANSFER_IN, toAccountId, Amount.of(120), toLastDate, Amount.of(130));
+        when(operationDAO.findLastOperationsByAccountIds(List.of(fromAccountId, toAccountId)))
+                .thenReturn(Map.of(fromAccountId, fromLastOperation, toAccountId, toLastOperation));
+        when(operationDAO.createAll(List.of(debit, credit))).thenReturn(List.of(debit, credit));
+
+        assertEquals(new Transfer(debit, credit), operationService.transfer(fromAccountId, toAccountId, Amount.of(120)));
+    }
+
+    @Test
+    @DisplayName("should reject a transfer exceeding the debited account balance")
+    void shouldThrowInsufficientBalanceExceptionWhenTransferringTooMuch() {
+        final UUID fromAccountId = UUID.randomUUID();
+        final UUID toAccountId = UUID.randomUUID();
+        when(operationDAO.findLastOperationsByAccountIds(List.of(fromAccountId, toAccountId))).thenReturn(Map.of());
+
+        final InsufficientBalanceException exception = assertThrows(InsufficientBalanceException.class,
+                () -> operationService.transfer(fromAccountId, toAccountId, Amount.of(10)));
+
+        assertEquals("Balance is insufficient for this transfer.", exception.getMessage());
+        final InOrder orderVerifier = inOrder(operationDAO);
+        orderVerifier.verify(operationDAO).findLastOperationsByAccountIds(List.of(fromAccountId, toAccountId));
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("should return the original operation when a deposit is retried with the same idempotency key")
+    void shouldReturnOriginalOperationOnRetriedDeposit() throws NegativeAmountException, IdempotencyKeyConflictException {
+        final UUID accountId = UUID.randomUUID();
+        final Operation expectedOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(50), LocalDateTime.now(clock), Amount.of(50));
+        when(operationDAO.create(expectedOperation)).thenReturn(expectedOperation);
+
+        final Operation operation = operationService.deposit(accountId, Amount.of(50), "request-1");
+        final Operation retriedOperation = operationService.deposit(accountId, Amount.of(50), "request-1");
+
+        assertEquals(expectedOperation, operation);
+        assertSame(operation, retriedOperation);
+        final InOrder orderVerifier = inOrder(operationDAO);
+        orderVerifier.verify(operationDAO).findLastOperationByAccountId(accountId);
+        orderVerifier.verify(operationDAO).create(expectedOperation);
+        orderVerifier.verifyNoMoreInteractions();
+    }
+
+    @Test
+    @DisplayName("should apply a withdrawal again once it was rejected under the same idempotency key")
+    void shouldApplyWithdrawalRetriedAfterRejection() throws NegativeAmountException, InsufficientBalanceException, IdempotencyKeyConflictException {
+        final UUID accountId = UUID.randomUUID();
+        final Operation lastOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(100), LocalDateTime.now(clock), Amount.of(100));
+        final Operation expectedOperation = new Operation(OperationType.WITHDRAWAL, accountId, Amount.of(80), LocalDateTime.now(clock), Amount.of(20));
+        when(operationDAO.findLastOperationByAccountId(accountId)).thenReturn(Optional.empty(), Optional.of(lastOperation));
+        when(operationDAO.create(expectedOperation)).thenReturn(expectedOperation);
+
+        assertThrows(InsufficientBalanceException.class, () -> operationService.withdrawal(accountId, Amount.of(80), "request-2"));
+        final Operation operation = operationService.withdrawal(accountId, Amount.of(80), "request-2");
+
+        assertEquals(expectedOperation, operation);
+        assertSame(operation, operationService.withdrawal(accountId, Amount.of(80), "request-2"));
+    }
+
+    @Test
+    @DisplayName("should reject an idempotency key reused for a different amount or operation")
+    void shouldRejectConflictingIdempotencyKey() throws NegativeAmountException, IdempotencyKeyConflictException {
+        final UUID accountId = UUID.randomUUID();
+        final Operation expectedOperation = new Operation(OperationType.DEPOSIT, accountId, Amount.of(50), LocalDateTime.now(clock), Amount.of(50));
+        when(operationDAO.create(expectedOperation)).thenReturn(expectedOperation);
+
+        operationService.deposit(accountId, Amount.of(50), "request-1");
+
+        assertThrows(IdempotencyKeyConflictException.class, () -> operationService.deposit(accountId, Amount.of(60), "request-1"));
+        assertThrows(IdempotencyKeyConflictException.class, () -> operationService.withdrawal(accountId, Amount.of(50), "request-1"));
+        final InOrder orderVerifier = inOrder(operationDAO);
+        orderVerifier.verify(operationDAO).findLastOperationByAccountId(accountId);
+        orderVerifier.verify(operationDAO).create(expectedOperation);
+        orderVerifier.verifyNoMoreInteractions();
+    }
+}
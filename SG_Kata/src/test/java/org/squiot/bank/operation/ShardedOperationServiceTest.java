@@ -0,0 +1,179 @@
+package org.squiot.bank.operation;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.exception.InsufficientBalanceException;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.operation.data.OperationDAO;
+import org.squiot.bank.writer.ConsoleStatementWriter;
+import org.squiot.bank.writer.TableStatementFormatter;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShardedOperationServiceTest {
+
+    @Test
+    @DisplayName("should keep each account on its own shard and DAO slice")
+    void shouldRouteAccountsToOwningShard() {
+        final InMemoryOperationDAO[] operationDAOs = new InMemoryOperationDAO[4];
+        final List<UUID> accountIds = new ArrayList<>();
+        final List<CompletableFuture<Operation>> futures = new ArrayList<>();
+
+        try (ShardedOperationService service = new ShardedOperationService(4, index -> operationDAOs[index] = new InMemoryOperationDAO(),
+                Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter())) {
+            for (int account = 0; account < 64; account++) {
+                accountIds.add(UUID.randomUUID());
+            }
+            for (int i = 0; i < 100; i++) {
+                for (UUID accountId : accountIds) {
+                    futures.add(service.deposit(accountId, Amount.of(1)));
+                }
+            }
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+
+            for (UUID accountId : accountIds) {
+                final int shard = service.shardIndexOf(accountId);
+                assertEquals(Amount.of(100), operationDAOs[shard].findLastOperationByAccountId(accountId).orElseThrow().balance());
+                for (int other = 0; other < operationDAOs.length; other++) {
+                    if (other != shard)
+                        assertTrue(operationDAOs[other].findLastOperationByAccountId(accountId).isEmpty());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should fail the future of a task throwing an Error and keep serving the shard")
+    void shouldKeepServingAfterError() {
+        final InMemoryOperationDAO failingOnceDAO = new InMemoryOperationDAO() {
+            private boolean failed;
+
+            @Override
+            public Operation create(Operation operation) {
+                if (!failed) {
+                    failed = true;
+                    throw new AssertionError("Simulated error.");
+                }
+                return super.create(operation);
+            }
+        };
+        final UUID accountId = UUID.randomUUID();
+
+        try (ShardedOperationService service = new ShardedOperationService(1, index -> failingOnceDAO,
+                Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter())) {
+            final CompletableFuture<Operation> failed = service.deposit(accountId, Amount.of(1));
+            final CompletableFuture<Operation> next = service.deposit(accountId, Amount.of(2));
+
+            final CompletionException failure = assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> assertThrows(CompletionException.class, failed::join));
+            assertInstanceOf(AssertionError.class, failure.getCause());
+            assertEquals(Amount.of(2), next.join().balance());
+        }
+    }
+
+    @Test
+    @DisplayName("should surface business exceptions through the future")
+    void shouldSurfaceBusinessExceptions() {
+        try (ShardedOperationService service = new ShardedOperationService(2, index -> new InMemoryOperationDAO(),
+                Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter())) {
+            final CompletionException failure = assertThrows(CompletionException.class,
+                    () -> service.withdrawal(UUID.randomUUID(), Amount.of(1)).join());
+
+            assertInstanceOf(InsufficientBalanceException.class, failure.getCause());
+        }
+    }
+
+    @Test
+    @DisplayName("should report the queue depth of each shard")
+    void shouldReportQueueDepths() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final IntFunctionDAO blockingDAOs = new IntFunctionDAO(release);
+
+        try (ShardedOperationService service = new ShardedOperationService(1, blockingDAOs::create,
+                Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter(), 2)) {
+            final UUID accountId = UUID.randomUUID();
+            final CompletableFuture<Operation> running = service.deposit(accountId, Amount.of(1));
+            blockingDAOs.awaitBlocked();
+            final CompletableFuture<Operation> firstQueued = service.deposit(accountId, Amount.of(2));
+            final CompletableFuture<Operation> secondQueued = service.deposit(accountId, Amount.of(3));
+            final CompletableFuture<Operation> rejected = service.deposit(accountId, Amount.of(4));
+
+            assertEquals("[2]", Arrays.toString(service.queueDepths()));
+            assertTrue(rejected.isCompletedExceptionally());
+
+            release.countDown();
+            assertEquals(Amount.of(6), CompletableFuture.allOf(running, firstQueued, secondQueued)
+                    .thenApply(ignored -> secondQueued.join().balance())
+                    .join());
+        }
+    }
+
+    @Test
+    @DisplayName("should report and interrupt shards that don't terminate in time on close")
+    void shouldInterruptShardsNotTerminatingOnClose() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final IntFunctionDAO blockingDAOs = new IntFunctionDAO(release);
+        final ShardedOperationService service = new ShardedOperationService(1, blockingDAOs::create,
+                Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+        final CompletableFuture<Operation> running = service.deposit(UUID.randomUUID(), Amount.of(1));
+        blockingDAOs.awaitBlocked();
+
+        assertFalse(service.close(Duration.ofMillis(50)));
+        assertEquals(Amount.of(1), running.join().balance());
+    }
+
+    @Test
+    @DisplayName("should keep the interrupt flag when interrupted while closing")
+    void shouldRestoreInterruptOnClose() throws InterruptedException {
+        final CountDownLatch release = new CountDownLatch(1);
+        final IntFunctionDAO blockingDAOs = new IntFunctionDAO(release);
+        final ShardedOperationService service = new ShardedOperationService(1, blockingDAOs::create,
+                Clock.systemUTC(), new TableStatementFormatter(), new ConsoleStatementWriter());
+        service.deposit(UUID.randomUUID(), Amount.of(1));
+        blockingDAOs.awaitBlocked();
+
+        Thread.currentThread().interrupt();
+        assertFalse(service.close(Duration.ofMinutes(1)));
+        assertTrue(Thread.interrupted());
+    }
+
+    private static final class IntFunctionDAO {
+
+        private final CountDownLatch release;
+        private final CountDownLatch blocked = new CountDownLatch(1);
+
+        private IntFunctionDAO(CountDownLatch release) {
+            this.release = release;
+        }
+
+        private OperationDAO create(int shard) {
+            return new InMemoryOperationDAO() {
+                @Override
+                public Operation create(Operation operation) {
+                    blocked.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return super.create(operation);
+                }
+            };
+        }
+
+        private void awaitBlocked() throws InterruptedException {
+            blocked.await();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package org.squiot.bank.operation.data;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CachingOperationDAOTest {
+
+    @Mock
+    private OperationDAO operationDAO;
+
+    @Test
+    @DisplayName("should only consult the backing store for cold accounts")
+    void shouldConsultBackingStoreForColdAccountsOnly() {
+        final CachingOperationDAO cachingOperationDAO = new CachingOperationDAO(operationDAO, 100);
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = deposit(accountId, 100);
+        when(operationDAO.findLastOperationByAccountId(accountId)).thenReturn(Optional.of(operation));
+
+        assertEquals(Optional.of(operation), cachingOperationDAO.findLastOperationByAccountId(accountId));
+        assertEquals(Optional.of(operation), cachingOperationDAO.findLastOperationByAccountId(accountId));
+        assertEquals(Optional.of(operation), cachingOperationDAO.findLastOperationByAccountId(accountId));
+
+        verify(operationDAO, times(1)).findLastOperationByAccountId(accountId);
+        assertEquals(2, cachingOperationDAO.hits());
+        assertEquals(1, cachingOperationDAO.misses());
+    }
+
+    @Test
+    @DisplayName("should write the created operation through the cache")
+    void shouldWriteThroughOnCreate() {
+        final CachingOperationDAO cachingOperationDAO = new CachingOperationDAO(operationDAO, 100);
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = deposit(accountId, 100);
+        when(operationDAO.create(operation)).thenReturn(operation);
+
+        cachingOperationDAO.create(operation);
+
+        assertEquals(Optional.of(operation), cachingOperationDAO.findLastOperationByAccountId(accountId));
+        verify(operationDAO).create(operation);
+        verifyNoMoreInteractions(operationDAO);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used account beyond its bound")
+    void shouldEvictLeastRecentlyUsedAccount() {
+        final CachingOperationDAO cachingOperationDAO = new CachingOperationDAO(operationDAO, 2, 1);
+        final UUID firstAccountId = UUID.randomUUID();
+        final UUID secondAccountId = UUID.randomUUID();
+        final UUID thirdAccountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(deposit(firstAccountId, 1), deposit(secondAccountId, 2), deposit(thirdAccountId, 3));
+        when(operationDAO.createAll(operations)).thenReturn(operations);
+        when(operationDAO.findLastOperationByAccountId(firstAccountId)).thenReturn(Optional.of(operations.get(0)));
+
+        cachingOperationDAO.createAll(operations);
+
+        assertEquals(1, cachingOperationDAO.evictions());
+        assertEquals(2, cachingOperationDAO.cachedAccounts());
+        assertEquals(Optional.of(operations.get(0)), cachingOperationDAO.findLastOperationByAccountId(firstAccountId));
+        assertEquals(1, cachingOperationDAO.misses());
+    }
+
+    @Test
+    @DisplayName("should fetch only the cold accounts of a batch lookup")
+    void shouldFetchColdAccountsOfBatch() {
+        final CachingOperationDAO cachingOperationDAO = new CachingOperationDAO(operationDAO, 100);
+        final UUID hotAccountId = UUID.randomUUID();
+        final UUID coldAccountId = UUID.randomUUID();
+        final Operation hotOperation = deposit(hotAccountId, 1);
+        final Operation coldOperation = deposit(coldAccountId, 2);
+        when(operationDAO.create(hotOperation)).thenReturn(hotOperation);
+        when(operationDAO.findLastOperationsByAccountIds(List.of(coldAccountId))).thenReturn(Map.of(coldAccountId, coldOperation));
+        cachingOperationDAO.create(hotOperation);
+
+        assertEquals(Map.of(hotAccountId, hotOperation, coldAccountId, coldOperation),
+                cachingOperationDAO.findLastOperationsByAccountIds(List.of(hotAccountId, coldAccountId)));
+        assertEquals(Optional.of(coldOperation), cachingOperationDAO.findLastOperationByAccountId(coldAccountId));
+    }
+
+    @Test
+    @DisplayName("should not install a value read before a concurrent write, even once that write was evicted")
+    void shouldNotInstallStaleValueAfterConcurrentWrite() {
+        final CachingOperationDAO cachingOperationDAO = new CachingOperationDAO(operationDAO, 1, 1);
+        final UUID accountId = UUID.randomUUID();
+        final Operation stale = deposit(accountId, 100);
+        final Operation newer = deposit(accountId, 150);
+        final Operation other = deposit(UUID.randomUUID(), 10);
+        when(operationDAO.create(newer)).thenReturn(newer);
+        when(operationDAO.create(other)).thenReturn(other);
+        when(operationDAO.findLastOperationByAccountId(accountId)).thenAnswer(invocation -> {
+            cachingOperationDAO.create(newer);
+            cachingOperationDAO.create(other);
+            return Optional.of(stale);
+        }).thenReturn(Optional.of(newer));
+
+        assertEquals(Optional.of(stale), cachingOperationDAO.findLastOperationByAccountId(accountId));
+
+        assertEquals(Optional.of(newer), cachingOperationDAO.findLastOperationByAccountId(accountId));
+        assertEquals(2, cachingOperationDAO.misses());
+    }
+
+    private static Operation deposit(UUID accountId, long amount) {
+        return new Operation(OperationType.DEPOSIT, accountId, Amount.of(amount), LocalDateTime.of(2022, 10, 5, 14, 30), Amount.of(amount));
+    }
+}
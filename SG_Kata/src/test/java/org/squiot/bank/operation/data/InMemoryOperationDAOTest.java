@@ -0,0 +1,169 @@
+package org.squiot.bank.operation.data;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryOperationDAOTest {
+
+    private InMemoryOperationDAO operationDAO;
+
+    @BeforeEach
+    void init() {
+        operationDAO = new InMemoryOperationDAO();
+    }
+
+    @Test
+    @DisplayName("should return nothing for an account without any operation")
+    void shouldReturnNothingForUnknownAccount() {
+        final UUID accountId = UUID.randomUUID();
+
+        assertEquals(Optional.empty(), operationDAO.findLastOperationByAccountId(accountId));
+        assertEquals(List.of(), operationDAO.findAllSortedOperationsByAccountId(accountId));
+    }
+
+    @Test
+    @DisplayName("should keep operations in creation order and expose the last one")
+    void shouldKeepOperationsInCreationOrder() {
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> expectedOperations = new ArrayList<>();
+        for (int i = 1; i <= 40; i++) {
+            expectedOperations.add(operationDAO.create(deposit(accountId, i)));
+        }
+        operationDAO.create(deposit(UUID.randomUUID(), 1));
+
+        assertEquals(expectedOperations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+        assertEquals(Optional.of(expectedOperations.get(39)), operationDAO.findLastOperationByAccountId(accountId));
+    }
+
+    @Test
+    @DisplayName("should list every account holding an operation")
+    void shouldListAccounts() {
+        final UUID firstAccountId = UUID.randomUUID();
+        final UUID secondAccountId = UUID.randomUUID();
+        operationDAO.create(deposit(firstAccountId, 1));
+        operationDAO.create(deposit(firstAccountId, 2));
+        operationDAO.create(deposit(secondAccountId, 1));
+
+        assertEquals(Set.of(firstAccountId, secondAccountId), operationDAO.findAllAccountIds());
+    }
+
+    @Test
+    @DisplayName("should not expose operations created after the history was read")
+    void shouldReturnStableHistory() {
+        final UUID accountId = UUID.randomUUID();
+        operationDAO.create(deposit(accountId, 1));
+
+        final List<Operation> history = operationDAO.findAllSortedOperationsByAccountId(accountId);
+        operationDAO.create(deposit(accountId, 2));
+
+        assertEquals(1, history.size());
+        assertThrows(UnsupportedOperationException.class, () -> history.add(deposit(accountId, 3)));
+    }
+
+    @Test
+    @DisplayName("should not lose any operation created concurrently")
+    void shouldCreateOperationsConcurrently() throws Exception {
+        final int threads = 8;
+        final int operationsPerThread = 1_000;
+        final UUID accountId = UUID.randomUUID();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < threads; t++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < operationsPerThread; i++) {
+                    operationDAO.create(deposit(accountId, i));
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        final List<Operation> history = operationDAO.findAllSortedOperationsByAccountId(accountId);
+        assertEquals(threads * operationsPerThread, history.size());
+        assertTrue(history.stream().allMatch(operation -> operation != null));
+    }
+
+    @Test
+    @DisplayName("should return operations of a date range and the last operation before it")
+    void shouldReturnOperationsBetweenDates() {
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = new ArrayList<>();
+        for (int day = 1; day <= 10; day++) {
+            operations.add(operationDAO.create(deposit(accountId, day, LocalDateTime.of(2022, 10, day, 12, 0))));
+        }
+
+        final LocalDateTime from = LocalDateTime.of(2022, 10, 4, 0, 0);
+        final LocalDateTime to = LocalDateTime.of(2022, 10, 7, 12, 0);
+
+        assertEquals(operations.subList(3, 6), operationDAO.findSortedOperationsByAccountIdBetween(accountId, from, to));
+        assertEquals(Optional.of(operations.get(2)), operationDAO.findLastOperationByAccountIdBefore(accountId, from));
+        assertEquals(Optional.empty(), operationDAO.findLastOperationByAccountIdBefore(accountId, LocalDateTime.of(2022, 10, 1, 12, 0)));
+        assertEquals(List.of(), operationDAO.findSortedOperationsByAccountIdBetween(accountId, to, from));
+    }
+
+    @Test
+    @DisplayName("should return a page of the sorted operations")
+    void shouldReturnPageOfOperations() {
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = new ArrayList<>();
+        for (int i = 0; i < 25; i++) {
+            operations.add(operationDAO.create(deposit(accountId, i)));
+        }
+
+        assertEquals(operations.subList(10, 20), operationDAO.findSortedOperationsByAccountId(accountId, 1, 10));
+        assertEquals(operations.subList(20, 25), operationDAO.findSortedOperationsByAccountId(accountId, 2, 10));
+        assertEquals(List.of(), operationDAO.findSortedOperationsByAccountId(accountId, 3, 10));
+        assertEquals(List.of(), operationDAO.findSortedOperationsByAccountId(UUID.randomUUID(), 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> operationDAO.findSortedOperationsByAccountId(accountId, -1, 10));
+        assertThrows(IllegalArgumentException.class, () -> operationDAO.findSortedOperationsByAccountId(accountId, 0, 0));
+    }
+
+    @Test
+    @DisplayName("should reject an operation older than the last one of the account")
+    void shouldRejectDatesOlderThanLastOperation() {
+        final UUID accountId = UUID.randomUUID();
+        operationDAO.create(deposit(accountId, 1, LocalDateTime.of(2022, 10, 1, 12, 0)));
+        operationDAO.create(deposit(accountId, 2, LocalDateTime.of(2022, 10, 5, 12, 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> operationDAO.create(deposit(accountId, 3, LocalDateTime.of(2022, 10, 3, 12, 0))));
+        assertEquals(2, operationDAO.findAllSortedOperationsByAccountId(accountId).size());
+    }
+
+    private static Operation deposit(UUID accountId, long amount) {
+        return deposit(accountId, amount, LocalDateTime.of(2022, 10, 28, 16, 8));
+    }
+
+    private static Operation deposit(UUID accountId, long amount, LocalDateTime date) {
+        return new Operation(
+                OperationType.DEPOSIT,
+                accountId,
+                Amount.of(amount),
+                date,
+                Amount.of(amount)
+        );
+    }
+}
@@ -0,0 +1,355 @@
+package org.squiot.bank.operation.data.journal;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.BackLinkedHistory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalOperationDAOTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should read back the history and last operation of an account")
+    void shouldReadBackHistory() throws IOException {
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = new ArrayList<>();
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(directory.resolve("journal"), Durability.FSYNC)) {
+            for (int i = 1; i <= 5; i++) {
+                operations.add(operationDAO.create(deposit(accountId, i, i * (i + 1) / 2)));
+                operationDAO.create(deposit(UUID.randomUUID(), i, i));
+            }
+
+            assertEquals(operations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+            assertEquals(Optional.of(operations.get(4)), operationDAO.findLastOperationByAccountId(accountId));
+            assertEquals(List.of(), operationDAO.findAllSortedOperationsByAccountId(UUID.randomUUID()));
+        }
+    }
+
+    @Test
+    @DisplayName("should stream a history spanning several chunks and answer range queries from it")
+    void shouldStreamHistoryInChunks() throws IOException {
+        final UUID accountId = UUID.randomUUID();
+        final LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        final List<Operation> operations = new ArrayList<>();
+        for (int i = 1; i <= 2 * BackLinkedHistory.CHUNK_SIZE + 10; i++) {
+            operations.add(new Operation(OperationType.DEPOSIT, accountId, Amount.of(1), start.plusMinutes(i), Amount.of(i)));
+        }
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(directory.resolve("journal"), Durability.BUFFERED)) {
+            operationDAO.createAll(operations);
+            operationDAO.create(deposit(UUID.randomUUID(), 1, 1));
+
+            try (Stream<Operation> history = operationDAO.streamSortedOperationsByAccountId(accountId)) {
+                assertEquals(operations, history.toList());
+            }
+            assertEquals(operations.subList(99, 1999), operationDAO.findSortedOperationsByAccountIdBetween(accountId, start.plusMinutes(100), start.plusMinutes(2000)));
+            assertEquals(Optional.of(operations.get(1498)), operationDAO.findLastOperationByAccountIdBefore(accountId, start.plusMinutes(1500)));
+            assertEquals(Optional.empty(), operationDAO.findLastOperationByAccountIdBefore(accountId, start));
+            assertEquals(0, operationDAO.streamSortedOperationsByAccountId(UUID.randomUUID()).count());
+        }
+    }
+
+    @Test
+    @DisplayName("should recover accounts state after a restart")
+    void shouldRecoverAfterRestart() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(deposit(accountId, 100, 100), deposit(accountId, 50, 150));
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            operationDAO.createAll(operations);
+        }
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            assertEquals(operations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+            assertEquals(Optional.of(operations.get(1)), operationDAO.findLastOperationByAccountId(accountId));
+
+            final Operation next = operationDAO.create(deposit(accountId, 10, 160));
+            assertEquals(List.of(operations.get(0), operations.get(1), next), operationDAO.findAllSortedOperationsByAccountId(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should truncate a torn record at the tail of the journal")
+    void shouldTruncateTornTail() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(deposit(accountId, 100, 100), deposit(accountId, 50, 150), deposit(accountId, 25, 175));
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.BUFFERED)) {
+            operationDAO.createAll(operations);
+        }
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{1, 2, 3}), 2L * JournalRecord.SIZE + 20);
+            channel.truncate(2L * JournalRecord.SIZE + 40);
+        }
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            assertEquals(operations.subList(0, 2), operationDAO.findAllSortedOperationsByAccountId(accountId));
+            assertEquals(2L * JournalRecord.SIZE, Files.size(journal));
+        }
+    }
+
+    @Test
+    @DisplayName("should refuse to start rather than truncate valid records following a corrupted one")
+    void shouldRefuseMidFileCorruption() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID accountId = UUID.randomUUID();
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            operationDAO.create(deposit(accountId, 100, 100));
+            operationDAO.create(deposit(accountId, 50, 150));
+            operationDAO.create(deposit(accountId, 25, 175));
+        }
+        final byte[] content = Files.readAllBytes(journal);
+        content[JournalRecord.SIZE + 30] ^= 0x5A;
+        Files.write(journal, content);
+
+        final IOException exception = assertThrows(IOException.class, () -> new JournalOperationDAO(journal, Durability.FSYNC));
+
+        assertEquals("Journal is corrupted: invalid record at offset 64 was synced before the record at offset 128 was written.", exception.getMessage());
+        assertEquals(3L * JournalRecord.SIZE, Files.size(journal));
+    }
+
+    @Test
+    @DisplayName("should truncate a hole followed by valid records when they all belong to the last unsynced group")
+    void shouldTruncateHoleInLastGroup() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID accountId = UUID.randomUUID();
+        final Operation first = deposit(accountId, 100, 100);
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            operationDAO.create(first);
+            operationDAO.createAll(List.of(deposit(accountId, 50, 150), deposit(accountId, 25, 175), deposit(accountId, 5, 180)));
+        }
+        final byte[] content = Files.readAllBytes(journal);
+        content[2 * JournalRecord.SIZE + 30] ^= 0x5A;
+        Files.write(journal, content);
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            assertEquals(List.of(first, deposit(accountId, 50, 150)), operationDAO.findAllSortedOperationsByAccountId(accountId));
+            assertEquals(2L * JournalRecord.SIZE, Files.size(journal));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject an operation older than the last one of the account")
+    void shouldRejectOutOfOrderDates() throws IOException {
+        final UUID accountId = UUID.randomUUID();
+        final LocalDateTime date = LocalDateTime.of(2022, 10, 28, 16, 8);
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(directory.resolve("journal"), Durability.BUFFERED)) {
+            operationDAO.create(new Operation(OperationType.DEPOSIT, accountId, Amount.of(10), date, Amount.of(10)));
+
+            assertThrows(IllegalArgumentException.class,
+                    () -> operationDAO.create(new Operation(OperationType.DEPOSIT, accountId, Amount.of(10), date.minusSeconds(1), Amount.of(20))));
+            assertThrows(IllegalArgumentException.class, () -> operationDAO.createAll(List.of(
+                    new Operation(OperationType.DEPOSIT, accountId, Amount.of(10), date.plusSeconds(2), Amount.of(20)),
+                    new Operation(OperationType.DEPOSIT, accountId, Amount.of(10), date.plusSeconds(1), Amount.of(30)))));
+            assertEquals(1, operationDAO.findAllSortedOperationsByAccountId(accountId).size());
+        }
+    }
+
+    @Test
+    @DisplayName("should drop a transfer debit whose credit didn't reach the journal")
+    void shouldTruncateTornTransfer() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID fromAccountId = UUID.randomUUID();
+        final UUID toAccountId = UUID.randomUUID();
+        final Operation deposit = deposit(fromAccountId, 100, 100);
+        final LocalDateTime date = LocalDateTime.of(2022, 10, 28, 16, 9);
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.BUFFERED)) {
+            operationDAO.create(deposit);
+            operationDAO.createAll(List.of(
+                    new Operation(OperationType.TRANSFER_OUT, fromAccountId, Amount.of(40), date, Amount.of(60)),
+                    new Operation(OperationType.TRANSFER_IN, toAccountId, Amount.of(40), date, Amount.of(40))
+            ));
+        }
+        try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+            channel.truncate(2L * JournalRecord.SIZE + 10);
+        }
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            assertEquals(List.of(deposit), operationDAO.findAllSortedOperationsByAccountId(fromAccountId));
+            assertEquals(Optional.empty(), operationDAO.findLastOperationByAccountId(toAccountId));
+            assertEquals(JournalRecord.SIZE, Files.size(journal));
+        }
+    }
+
+    @Test
+    @DisplayName("should group concurrent writes without losing any of them")
+    void shouldCommitConcurrentWrites() throws Exception {
+        final int threads = 8;
+        final int operationsPerThread = 200;
+        final List<UUID> accountIds = new ArrayList<>();
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final Path journal = directory.resolve("journal");
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                final UUID accountId = UUID.randomUUID();
+                accountIds.add(accountId);
+                futures.add(executor.submit(() -> {
+                    for (int i = 1; i <= operationsPerThread; i++) {
+                        operationDAO.create(deposit(accountId, 1, i));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            for (UUID accountId : accountIds) {
+                final List<Operation> history = operationDAO.findAllSortedOperationsByAccountId(accountId);
+                assertEquals(operationsPerThread, history.size());
+                for (int i = 0; i < operationsPerThread; i++) {
+                    assertEquals(Amount.of(i + 1), history.get(i).balance());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should reject writes once closed")
+    void shouldRejectWritesOnceClosed() throws IOException {
+        final JournalOperationDAO operationDAO = new JournalOperationDAO(directory.resolve("journal"), Durability.FSYNC);
+        operationDAO.close();
+
+        assertThrows(IllegalStateException.class, () -> operationDAO.create(deposit(UUID.randomUUID(), 1, 1)));
+    }
+
+    @Test
+    @DisplayName("should fail the writer instead of hanging when a commit fails, then reject further writes")
+    void shouldFailWritersWhenCommitFails() throws IOException {
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(directory.resolve("journal"), Durability.FSYNC)) {
+            final Operation failingOperation = new Operation(OperationType.DEPOSIT, null, Amount.of(1), LocalDateTime.of(2022, 10, 28, 16, 8), Amount.of(1));
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+                assertThrows(IllegalStateException.class, () -> operationDAO.create(failingOperation));
+                assertThrows(IllegalStateException.class, () -> operationDAO.create(deposit(UUID.randomUUID(), 1, 1)));
+            });
+        }
+    }
+
+    @Test
+    @DisplayName("should restore accounts from a snapshot and replay only the journal tail")
+    void shouldRestoreFromSnapshotAndTail() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID accountId = UUID.randomUUID();
+        final UUID otherAccountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(deposit(accountId, 100, 100), deposit(accountId, 50, 150), deposit(accountId, 25, 175));
+        final Operation otherOperation = deposit(otherAccountId, 10, 10);
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            operationDAO.createAll(operations.subList(0, 2));
+            operationDAO.create(otherOperation);
+            operationDAO.snapshot();
+            operationDAO.create(operations.get(2));
+        }
+        assertTrue(Files.exists(directory.resolve("journal.snapshot")));
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC, 4)) {
+            assertEquals(operations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+            assertEquals(Optional.of(operations.get(2)), operationDAO.findLastOperationByAccountId(accountId));
+            assertEquals(List.of(otherOperation), operationDAO.findAllSortedOperationsByAccountId(otherAccountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should ignore a corrupted snapshot and replay the whole journal")
+    void shouldIgnoreCorruptedSnapshot() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(deposit(accountId, 100, 100), deposit(accountId, 50, 150));
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            operationDAO.create(operations.get(0));
+            operationDAO.snapshot();
+            operationDAO.create(operations.get(1));
+        }
+        final Path snapshot = directory.resolve("journal.snapshot");
+        final byte[] content = Files.readAllBytes(snapshot);
+        content[content.length - 1] ^= 0x5A;
+        Files.write(snapshot, content);
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC)) {
+            assertEquals(operations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should replay a journal in parallel partitions")
+    void shouldReplayInParallelPartitions() throws IOException {
+        final Path journal = directory.resolve("journal");
+        final List<UUID> accountIds = new ArrayList<>();
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.BUFFERED)) {
+            final List<Operation> operations = new ArrayList<>();
+            for (int account = 0; account < 100; account++) {
+                accountIds.add(UUID.randomUUID());
+            }
+            for (int i = 1; i <= 50; i++) {
+                for (UUID accountId : accountIds) {
+                    operations.add(deposit(accountId, 1, i));
+                }
+            }
+            operationDAO.createAll(operations);
+        }
+
+        try (JournalOperationDAO operationDAO = new JournalOperationDAO(journal, Durability.FSYNC, 8)) {
+            for (UUID accountId : accountIds) {
+                assertEquals(Amount.of(50), operationDAO.findLastOperationByAccountId(accountId).orElseThrow().balance());
+                assertEquals(50, operationDAO.findAllSortedOperationsByAccountId(accountId).size());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a replay partitions count that is not positive")
+    void shouldRejectInvalidReplayPartitions() {
+        assertThrows(IllegalArgumentException.class, () -> new JournalOperationDAO(directory.resolve("journal"), Durability.FSYNC, 0));
+        assertThrows(IllegalArgumentException.class, () -> new JournalOperationDAO(directory.resolve("journal"), Durability.FSYNC, -1));
+        assertFalse(Files.exists(directory.resolve("journal")));
+    }
+
+    private static Operation deposit(UUID accountId, long amount, long balance) {
+        return new Operation(
+                OperationType.DEPOSIT,
+                accountId,
+                Amount.of(amount),
+                LocalDateTime.of(2022, 10, 28, 16, 8, 0, 123_456_789),
+                Amount.of(balance)
+        );
+    }
+}
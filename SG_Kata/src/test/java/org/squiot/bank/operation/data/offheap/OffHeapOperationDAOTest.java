@@ -0,0 +1,143 @@
+package org.squiot.bank.operation.data.offheap;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.BackLinkedHistory;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OffHeapOperationDAOTest {
+
+    @Test
+    @DisplayName("should materialize the stored operations in creation order across segments")
+    void shouldMaterializeOperationsAcrossSegments() {
+        final OffHeapOperationDAO operationDAO = new OffHeapOperationDAO(8);
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = new ArrayList<>();
+
+        for (int i = 1; i <= 30; i++) {
+            operations.add(operationDAO.create(operation(i % 3 == 0 ? OperationType.WITHDRAWAL : OperationType.DEPOSIT, accountId, i)));
+            operationDAO.create(operation(OperationType.DEPOSIT, UUID.randomUUID(), i));
+        }
+
+        assertEquals(operations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+        assertEquals(operations.subList(25, 30), operationDAO.findSortedOperationsByAccountIdFrom(accountId, 25));
+        assertEquals(List.of(), operationDAO.findSortedOperationsByAccountIdFrom(accountId, 40));
+        assertEquals(Optional.of(operations.get(29)), operationDAO.findLastOperationByAccountId(accountId));
+        assertEquals(60, operationDAO.usedSlots());
+        assertEquals(8L * 8 * OperationSlots.SLOT_SIZE, operationDAO.reservedBytes());
+    }
+
+    @Test
+    @DisplayName("should stream a history spanning several chunks and answer range queries from it")
+    void shouldStreamHistoryInChunks() {
+        final OffHeapOperationDAO operationDAO = new OffHeapOperationDAO(256);
+        final UUID accountId = UUID.randomUUID();
+        final LocalDateTime start = LocalDateTime.of(2022, 1, 1, 0, 0);
+        final List<Operation> operations = new ArrayList<>();
+        for (int i = 1; i <= 2 * BackLinkedHistory.CHUNK_SIZE + 10; i++) {
+            operations.add(operationDAO.create(new Operation(OperationType.DEPOSIT, accountId, Amount.of(1), start.plusMinutes(i), Amount.of(i))));
+            operationDAO.create(new Operation(OperationType.DEPOSIT, UUID.randomUUID(), Amount.of(1), start, Amount.of(1)));
+        }
+
+        try (Stream<Operation> history = operationDAO.streamSortedOperationsByAccountId(accountId)) {
+            assertEquals(operations, history.toList());
+        }
+        assertEquals(operations.subList(99, 1999), operationDAO.findSortedOperationsByAccountIdBetween(accountId, start.plusMinutes(100), start.plusMinutes(2000)));
+        assertEquals(Optional.of(operations.get(1498)), operationDAO.findLastOperationByAccountIdBefore(accountId, start.plusMinutes(1500)));
+    }
+
+    @Test
+    @DisplayName("should reject an operation older than the last one of the account")
+    void shouldRejectOutOfOrderDates() {
+        final OffHeapOperationDAO operationDAO = new OffHeapOperationDAO(8);
+        final UUID accountId = UUID.randomUUID();
+        final Operation last = operationDAO.create(operation(OperationType.DEPOSIT, accountId, 5));
+
+        assertThrows(IllegalArgumentException.class, () -> operationDAO.create(operation(OperationType.DEPOSIT, accountId, 4)));
+        assertEquals(List.of(last), operationDAO.findAllSortedOperationsByAccountId(accountId));
+        assertEquals(List.of(), operationDAO.findSortedOperationsByAccountIdBetween(accountId, last.date().plusSeconds(1), last.date().plusSeconds(2)));
+        assertEquals(Optional.empty(), operationDAO.findLastOperationByAccountIdBefore(accountId, last.date()));
+    }
+
+    @Test
+    @DisplayName("should return nothing for an unknown account")
+    void shouldReturnNothingForUnknownAccount() {
+        final OffHeapOperationDAO operationDAO = new OffHeapOperationDAO();
+
+        assertEquals(Optional.empty(), operationDAO.findLastOperationByAccountId(UUID.randomUUID()));
+        assertEquals(List.of(), operationDAO.findAllSortedOperationsByAccountId(UUID.randomUUID()));
+    }
+
+    @Test
+    @DisplayName("should store operations in memory-mapped segments")
+    void shouldStoreOperationsInMappedSegments(@TempDir Path directory) {
+        final OffHeapOperationDAO operationDAO = OffHeapOperationDAO.mapped(directory, 4);
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = new ArrayList<>();
+
+        for (int i = 1; i <= 10; i++) {
+            operations.add(operationDAO.create(operation(OperationType.DEPOSIT, accountId, i)));
+        }
+
+        assertEquals(operations, operationDAO.findAllSortedOperationsByAccountId(accountId));
+        assertTrue(directory.resolve("operations-00002.seg").toFile().exists());
+        assertThrows(IllegalArgumentException.class, () -> OffHeapOperationDAO.mapped(directory, 4));
+    }
+
+    @Test
+    @DisplayName("should reject segments sizes that are not positive or overflow a buffer")
+    void shouldRejectInvalidSegmentSizes() {
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapOperationDAO(0));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapOperationDAO(Integer.MAX_VALUE / 8));
+    }
+
+    @Test
+    @DisplayName("should not lose any operation created concurrently")
+    void shouldCreateOperationsConcurrently() throws Exception {
+        final OffHeapOperationDAO operationDAO = new OffHeapOperationDAO(64);
+        final UUID accountId = UUID.randomUUID();
+        final Operation operation = operation(OperationType.DEPOSIT, accountId, 1);
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        final List<Future<?>> futures = new ArrayList<>();
+
+        for (int t = 0; t < 4; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 1; i <= 1000; i++) {
+                    operationDAO.create(operation);
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(4000, operationDAO.findAllSortedOperationsByAccountId(accountId).size());
+    }
+
+    private static Operation operation(OperationType operationType, UUID accountId, long amount) {
+        return new Operation(
+                operationType,
+                accountId,
+                Amount.ofMinorUnits(amount * 101),
+                LocalDateTime.of(2022, 10, 28, 16, 8, 0, 123_456_789).plusSeconds(amount),
+                Amount.ofMinorUnits(amount * 1_000_003)
+        );
+    }
+}
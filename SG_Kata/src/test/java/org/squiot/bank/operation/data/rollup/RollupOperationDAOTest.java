@@ -0,0 +1,79 @@
+package org.squiot.bank.operation.data.rollup;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.account.PeriodRollup;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RollupOperationDAOTest {
+
+    private final UUID accountId = UUID.randomUUID();
+
+    @Test
+    @DisplayName("should maintain daily and monthly rollups as operations are created")
+    void shouldMaintainRollupsIncrementally() {
+        final RollupOperationDAO rollupOperationDAO = new RollupOperationDAO(new InMemoryOperationDAO());
+
+        rollupOperationDAO.create(operation(OperationType.DEPOSIT, 100, LocalDateTime.of(2022, 10, 5, 9, 0), 100));
+        rollupOperationDAO.create(operation(OperationType.WITHDRAWAL, 30, LocalDateTime.of(2022, 10, 5, 18, 0), 70));
+        rollupOperationDAO.createAll(List.of(
+                operation(OperationType.DEPOSIT, 50, LocalDateTime.of(2022, 10, 20, 9, 0), 120),
+                operation(OperationType.WITHDRAWAL, 20, LocalDateTime.of(2022, 11, 2, 9, 0), 100)
+        ));
+
+        assertEquals(List.of(
+                new PeriodRollup(LocalDate.of(2022, 10, 1), 3, Amount.of(150), Amount.of(30), Amount.ZERO, Amount.of(120)),
+                new PeriodRollup(LocalDate.of(2022, 11, 1), 1, Amount.ZERO, Amount.of(20), Amount.of(120), Amount.of(100))
+        ), rollupOperationDAO.findRollupsByAccountId(accountId, RollupPeriod.MONTH));
+        assertEquals(List.of(
+                new PeriodRollup(LocalDate.of(2022, 10, 5), 2, Amount.of(100), Amount.of(30), Amount.ZERO, Amount.of(70)),
+                new PeriodRollup(LocalDate.of(2022, 10, 20), 1, Amount.of(50), Amount.ZERO, Amount.of(70), Amount.of(120)),
+                new PeriodRollup(LocalDate.of(2022, 11, 2), 1, Amount.ZERO, Amount.of(20), Amount.of(120), Amount.of(100))
+        ), rollupOperationDAO.findRollupsByAccountId(accountId, RollupPeriod.DAY));
+    }
+
+    @Test
+    @DisplayName("should build the rollups of an existing account from the backing store once")
+    void shouldLoadRollupsOfExistingAccount() {
+        final InMemoryOperationDAO operationDAO = new InMemoryOperationDAO();
+        operationDAO.create(operation(OperationType.DEPOSIT, 100, LocalDateTime.of(2022, 9, 5, 9, 0), 100));
+        final RollupOperationDAO rollupOperationDAO = new RollupOperationDAO(operationDAO);
+
+        rollupOperationDAO.create(operation(OperationType.DEPOSIT, 10, LocalDateTime.of(2022, 10, 5, 9, 0), 110));
+
+        assertEquals(List.of(
+                new PeriodRollup(LocalDate.of(2022, 9, 1), 1, Amount.of(100), Amount.ZERO, Amount.ZERO, Amount.of(100)),
+                new PeriodRollup(LocalDate.of(2022, 10, 1), 1, Amount.of(10), Amount.ZERO, Amount.of(100), Amount.of(110))
+        ), rollupOperationDAO.findRollupsByAccountId(accountId, RollupPeriod.MONTH));
+    }
+
+    @Test
+    @DisplayName("should return the rollups of the periods overlapping a date range")
+    void shouldFindRollupsBetween() {
+        final RollupOperationDAO rollupOperationDAO = new RollupOperationDAO(new InMemoryOperationDAO());
+        for (int month = 1; month <= 12; month++) {
+            rollupOperationDAO.create(operation(OperationType.DEPOSIT, 10, LocalDateTime.of(2022, month, 15, 9, 0), month * 10L));
+        }
+
+        final List<PeriodRollup> rollups = rollupOperationDAO.findRollupsByAccountIdBetween(accountId, RollupPeriod.MONTH,
+                LocalDate.of(2022, 3, 20), LocalDate.of(2022, 6, 1));
+
+        assertEquals(List.of(LocalDate.of(2022, 3, 1), LocalDate.of(2022, 4, 1), LocalDate.of(2022, 5, 1)),
+                rollups.stream().map(PeriodRollup::start).toList());
+    }
+
+    private Operation operation(OperationType operationType, long amount, LocalDateTime date, long balance) {
+        return new Operation(operationType, accountId, Amount.of(amount), date, Amount.of(balance));
+    }
+}
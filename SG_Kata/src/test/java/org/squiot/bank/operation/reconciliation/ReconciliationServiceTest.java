@@ -0,0 +1,219 @@
+package org.squiot.bank.operation.reconciliation;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+import org.squiot.bank.operation.data.InMemoryOperationDAO;
+import org.squiot.bank.operation.data.journal.Durability;
+import org.squiot.bank.operation.data.journal.JournalOperationDAO;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReconciliationServiceTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 10, 5, 14, 30);
+
+    @TempDir
+    Path directory;
+
+    private final InMemoryOperationDAO operationDAO = new InMemoryOperationDAO();
+    private ForkJoinPool pool;
+
+    @BeforeEach
+    void init() {
+        pool = new ForkJoinPool(4);
+    }
+
+    @AfterEach
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("should find no broken link in a consistent ledger")
+    void shouldReconcileConsistentLedger() {
+        for (int account = 0; account < 300; account++) {
+            final UUID accountId = UUID.randomUUID();
+            operationDAO.create(operation(OperationType.DEPOSIT, accountId, 100, 100));
+            operationDAO.create(operation(OperationType.WITHDRAWAL, accountId, 40, 60));
+            operationDAO.create(operation(OperationType.TRANSFER_IN, accountId, 15, 75));
+            operationDAO.create(operation(OperationType.TRANSFER_OUT, accountId, 75, 0));
+        }
+
+        final ReconciliationReport report = new ReconciliationService(operationDAO, pool).reconcile();
+
+        assertTrue(report.isConsistent());
+        assertEquals(300, report.accountsScanned());
+        assertEquals(1200, report.operationsScanned());
+        assertEquals(1200, report.checkpoint().verifiedOperations());
+    }
+
+    @Test
+    @DisplayName("should report a balance mismatch and a negative balance after a debit")
+    void shouldReportBrokenLinks() {
+        final UUID accountId = UUID.randomUUID();
+        final Operation deposit = operation(OperationType.DEPOSIT, accountId, 100, 100);
+        final Operation tamperedWithdrawal = operation(OperationType.WITHDRAWAL, accountId, 30, 80);
+        final Operation overdraft = operation(OperationType.WITHDRAWAL, accountId, 90, -10);
+        operationDAO.create(deposit);
+        operationDAO.create(tamperedWithdrawal);
+        operationDAO.create(overdraft);
+
+        final ReconciliationReport report = new ReconciliationService(operationDAO, pool).reconcile();
+
+        assertFalse(report.isConsistent());
+        assertEquals(2, report.brokenLinksCount());
+        assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, 1, tamperedWithdrawal, Amount.of(70))));
+        assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.NEGATIVE_BALANCE, accountId, 2, overdraft, Amount.ZERO)));
+    }
+
+    @Test
+    @DisplayName("should only verify the operations created since the checkpoint")
+    void shouldResumeFromCheckpoint() throws IOException {
+        final UUID accountId = UUID.randomUUID();
+        final UUID untouchedAccountId = UUID.randomUUID();
+        operationDAO.create(operation(OperationType.DEPOSIT, accountId, 100, 100));
+        operationDAO.create(operation(OperationType.DEPOSIT, untouchedAccountId, 50, 50));
+        final ReconciliationService reconciliationService = new ReconciliationService(operationDAO, pool);
+        final ReconciliationReport firstReport = reconciliationService.reconcile();
+
+        final ByteArrayOutputStream savedCheckpoint = new ByteArrayOutputStream();
+        firstReport.checkpoint().writeTo(savedCheckpoint);
+        final ReconciliationCheckpoint checkpoint = ReconciliationCheckpoint.readFrom(new ByteArrayInputStream(savedCheckpoint.toByteArray()));
+        operationDAO.create(operation(OperationType.WITHDRAWAL, accountId, 30, 70));
+        operationDAO.create(operation(OperationType.DEPOSIT, accountId, 5, 80));
+
+        final ReconciliationReport report = reconciliationService.reconcile(checkpoint);
+
+        assertEquals(firstReport.checkpoint(), checkpoint);
+        assertEquals(2, report.operationsScanned());
+        assertEquals(List.of(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, 2, operation(OperationType.DEPOSIT, accountId, 5, 80), Amount.of(75))),
+                report.brokenLinks());
+        assertEquals(new AccountCheckpoint(3, Amount.of(80)), report.checkpoint().of(accountId));
+        assertEquals(new AccountCheckpoint(1, Amount.of(50)), report.checkpoint().of(untouchedAccountId));
+    }
+
+    @Test
+    @DisplayName("should count every broken link but only keep a bounded number of them")
+    void shouldBoundReportedBrokenLinks() {
+        for (int account = 0; account < 50; account++) {
+            operationDAO.create(operation(OperationType.DEPOSIT, UUID.randomUUID(), 10, 20));
+        }
+
+        final ReconciliationReport report = new ReconciliationService(operationDAO, pool, 5).reconcile();
+
+        assertEquals(50, report.brokenLinksCount());
+        assertEquals(5, report.brokenLinks().size());
+    }
+
+    @Test
+    @DisplayName("should report a checkpoint ahead of the ledger or disagreeing with it")
+    void shouldReportCheckpointMismatches() {
+        final UUID truncatedAccountId = UUID.randomUUID();
+        final UUID rewrittenAccountId = UUID.randomUUID();
+        final UUID missingAccountId = UUID.randomUUID();
+        final Operation lastOperation = operation(OperationType.DEPOSIT, truncatedAccountId, 100, 100);
+        final Operation rewrittenOperation = operation(OperationType.DEPOSIT, rewrittenAccountId, 40, 40);
+        operationDAO.create(lastOperation);
+        operationDAO.create(rewrittenOperation);
+        operationDAO.create(operation(OperationType.DEPOSIT, rewrittenAccountId, 10, 50));
+        final ReconciliationCheckpoint checkpoint = new ReconciliationCheckpoint(Map.of(
+                truncatedAccountId, new AccountCheckpoint(3, Amount.of(120)),
+                rewrittenAccountId, new AccountCheckpoint(1, Amount.of(60)),
+                missingAccountId, new AccountCheckpoint(2, Amount.of(10))
+        ));
+
+        final ReconciliationReport report = new ReconciliationService(operationDAO, pool).reconcile(checkpoint);
+
+        assertEquals(3, report.brokenLinksCount());
+        assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.CHECKPOINT_MISMATCH, truncatedAccountId, 2, lastOperation, Amount.of(120))));
+        assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.CHECKPOINT_MISMATCH, rewrittenAccountId, 0, rewrittenOperation, Amount.of(60))));
+        assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.CHECKPOINT_MISMATCH, missingAccountId, 1, null, Amount.of(10))));
+        assertEquals(new AccountCheckpoint(3, Amount.of(120)), report.checkpoint().of(truncatedAccountId));
+        assertEquals(new AccountCheckpoint(2, Amount.of(50)), report.checkpoint().of(rewrittenAccountId));
+    }
+
+    @Test
+    @DisplayName("should resume the reconciliation of a journal from the log offset of the checkpoint")
+    void shouldResumeJournalFromLogOffset() throws IOException {
+        final UUID accountId = UUID.randomUUID();
+        final UUID otherAccountId = UUID.randomUUID();
+        final Operation tamperedDeposit = operation(OperationType.DEPOSIT, accountId, 5, 80);
+        try (JournalOperationDAO journal = new JournalOperationDAO(directory.resolve("journal"), Durability.BUFFERED)) {
+            journal.create(operation(OperationType.DEPOSIT, accountId, 100, 100));
+            journal.create(operation(OperationType.DEPOSIT, otherAccountId, 50, 50));
+            final ReconciliationService reconciliationService = new ReconciliationService(journal, pool);
+            final ReconciliationReport firstReport = reconciliationService.reconcile();
+            journal.create(operation(OperationType.WITHDRAWAL, accountId, 30, 70));
+            journal.create(tamperedDeposit);
+            final ByteArrayOutputStream savedCheckpoint = new ByteArrayOutputStream();
+            firstReport.checkpoint().writeTo(savedCheckpoint);
+
+            final ReconciliationReport report = reconciliationService.reconcile(ReconciliationCheckpoint.readFrom(new ByteArrayInputStream(savedCheckpoint.toByteArray())));
+
+            assertTrue(firstReport.isConsistent());
+            assertEquals(2, firstReport.operationsScanned());
+            assertEquals(2, firstReport.checkpoint().logOffset());
+            assertEquals(4, report.checkpoint().logOffset());
+            assertEquals(2, report.accountsScanned());
+            assertEquals(2, report.operationsScanned());
+            assertEquals(List.of(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, 2, tamperedDeposit, Amount.of(75))), report.brokenLinks());
+            assertEquals(new AccountCheckpoint(3, Amount.of(80)), report.checkpoint().of(accountId));
+            assertEquals(new AccountCheckpoint(1, Amount.of(50)), report.checkpoint().of(otherAccountId));
+        }
+    }
+
+    @Test
+    @DisplayName("should link the chains of each account across the ranges of a journal scanned in parallel")
+    void shouldReconcileJournalRangesInParallel() throws IOException {
+        final UUID accountId = UUID.randomUUID();
+        final UUID otherAccountId = UUID.randomUUID();
+        try (JournalOperationDAO journal = new JournalOperationDAO(directory.resolve("journal"), Durability.BUFFERED)) {
+            Operation tamperedDeposit = null;
+            Operation overdraft = null;
+            for (int i = 1; i <= 4000; i++) {
+                final Operation deposit = i == 1000 ? operation(OperationType.DEPOSIT, accountId, 1, i + 1) : operation(OperationType.DEPOSIT, accountId, 1, i);
+                final Operation withdrawal = i == 3000 ? operation(OperationType.WITHDRAWAL, otherAccountId, 1, -1) : operation(OperationType.DEPOSIT, otherAccountId, 0, 0);
+                journal.create(deposit);
+                journal.create(withdrawal);
+                if (i == 1000)
+                    tamperedDeposit = deposit;
+                if (i == 3000)
+                    overdraft = withdrawal;
+            }
+
+            final ReconciliationReport report = new ReconciliationService(journal, pool).reconcile();
+
+            assertEquals(8000, report.operationsScanned());
+            assertEquals(2, report.accountsScanned());
+            assertEquals(4, report.brokenLinksCount());
+            assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, 999, tamperedDeposit, Amount.of(1000))));
+            assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, accountId, 1000, operation(OperationType.DEPOSIT, accountId, 1, 1001), Amount.of(1002))));
+            assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.NEGATIVE_BALANCE, otherAccountId, 2999, overdraft, Amount.ZERO)));
+            assertTrue(report.brokenLinks().contains(new BrokenLink(BrokenLinkType.BALANCE_MISMATCH, otherAccountId, 3000, operation(OperationType.DEPOSIT, otherAccountId, 0, 0), Amount.of(-1))));
+            assertEquals(new ReconciliationCheckpoint(Map.of(
+                    accountId, new AccountCheckpoint(4000, Amount.of(4000)),
+                    otherAccountId, new AccountCheckpoint(4000, Amount.ZERO)
+            ), 8000), report.checkpoint());
+        }
+    }
+
+    private static Operation operation(OperationType operationType, UUID accountId, long amount, long balance) {
+        return new Operation(operationType, accountId, Amount.of(amount), DATE, Amount.of(balance));
+    }
+}
@@ -0,0 +1,75 @@
+package org.squiot.bank.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ChannelStatementWriterTest {
+
+    @Test
+    void shouldWriteLinesLargerThanBuffer() {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+        final ChannelStatementWriter writer = new ChannelStatementWriter(Channels.newChannel(output), StandardCharsets.UTF_8, 16);
+        final List<String> lines = IntStream.range(0, 50)
+                .mapToObj(i -> "|DEPOSIT " + "é".repeat(i) + " 350.00|")
+                .toList();
+
+        writer.write(lines);
+
+        assertEquals(joinLines(lines), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void shouldAppendStreamedStatementsToFile(@TempDir Path directory) throws IOException {
+        final Path file = directory.resolve("statements.txt");
+
+        try (ChannelStatementWriter writer = new ChannelStatementWriter(
+                FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND))) {
+            writer.write(Stream.of("line 1", "line 2"));
+            writer.write(List.of("line 3"));
+        }
+
+        assertEquals(joinLines(List.of("line 1", "line 2", "line 3")), Files.readString(file));
+    }
+
+    @Test
+    void shouldWriteOneFilePerStatement(@TempDir Path directory) throws IOException {
+        final FileStatementWriter writer = new FileStatementWriter(directory, "statement");
+        final List<String> firstStatement = List.of("*----*", "|ACCOUNT STATEMENT|", "*----*");
+
+        writer.write(firstStatement);
+        writer.write(Stream.of("|-- NO OPERATIONS --|"));
+
+        assertEquals(joinLines(firstStatement), Files.readString(directory.resolve("statement-00000001.txt")));
+        assertEquals(joinLines(List.of("|-- NO OPERATIONS --|")), Files.readString(directory.resolve("statement-00000002.txt")));
+    }
+
+    @Test
+    void shouldTrimPreallocatedFileToWrittenBytes(@TempDir Path directory) throws IOException {
+        final FileStatementWriter writer = new FileStatementWriter(directory, "statement");
+
+        writer.write(List.of("amount : 100€"));
+
+        final Path file = directory.resolve("statement-00000001.txt");
+        assertEquals(joinLines(List.of("amount : 100€")), Files.readString(file));
+        assertEquals(("amount : 100€" + System.lineSeparator()).getBytes(StandardCharsets.UTF_8).length, Files.size(file));
+    }
+
+    private static String joinLines(List<String> lines) {
+        return lines.stream().map(line -> line + System.lineSeparator()).collect(Collectors.joining());
+    }
+}
@@ -52,4 +52,16 @@ class ConsoleStatementWriterTest {
         assertEquals("", text.trim());
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldDisplayStreamedLines(final Capturable stream) {
+        final String expectedResult = String.join(System.lineSeparator(), "line 1", "line 2", "line 3");
+
+        stream.capture();
+        consoleWriterStatement.write(Stream.of("line 1", "line 2", "line 3"));
+
+        final String text = stream.getCapturedData();
+
+        assertEquals(expectedResult, text.trim());
+    }
+
+}
@@ -0,0 +1,194 @@
+package org.squiot.bank.writer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferStatementWriterTest {
+
+    @Test
+    @DisplayName("should hand every statement of concurrent producers to the consumer in one piece")
+    void shouldDeliverAllStatements() throws Exception {
+        final List<List<String>> written = Collections.synchronizedList(new ArrayList<>());
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try (RingBufferStatementWriter statementWriter = new RingBufferStatementWriter(written::add, 16, WaitStrategy.YIELDING, OverflowPolicy.BLOCK)) {
+            final List<Future<?>> producers = new ArrayList<>();
+            for (int producer = 0; producer < 4; producer++) {
+                final int producerId = producer;
+                producers.add(executor.submit(() -> {
+                    for (int statement = 0; statement < 1000; statement++) {
+                        statementWriter.write(List.of("producer " + producerId, "statement " + statement));
+                    }
+                }));
+            }
+            for (Future<?> producer : producers) {
+                producer.get();
+            }
+            statementWriter.flush();
+
+            assertEquals(4000, written.size());
+            assertEquals(0, statementWriter.pendingStatements());
+            for (int producer = 0; producer < 4; producer++) {
+                final String producerLine = "producer " + producer;
+                final List<String> statements = written.stream().filter(lines -> lines.get(0).equals(producerLine)).map(lines -> lines.get(1)).toList();
+                for (int statement = 0; statement < 1000; statement++) {
+                    assertEquals("statement " + statement, statements.get(statement));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should drop and count statements while the buffer is full")
+    void shouldDropStatementsWhenFull() throws Exception {
+        final CountDownLatch consuming = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<List<String>> written = Collections.synchronizedList(new ArrayList<>());
+        final StatementWriter slowWriter = lines -> {
+            consuming.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(lines);
+        };
+
+        try (RingBufferStatementWriter statementWriter = new RingBufferStatementWriter(slowWriter, 2, WaitStrategy.PARKING, OverflowPolicy.DROP)) {
+            try {
+                statementWriter.write(List.of("1"));
+                consuming.await();
+                statementWriter.write(List.of("2"));
+                statementWriter.write(List.of("3"));
+
+                assertEquals(1, statementWriter.droppedStatements());
+            } finally {
+                release.countDown();
+            }
+            statementWriter.flush();
+            assertEquals(List.of(List.of("1"), List.of("2")), written);
+        }
+    }
+
+    @Test
+    @DisplayName("should drop statements whose lines would exceed the pending lines bound")
+    void shouldDropStatementsBeyondPendingLines() throws Exception {
+        final CountDownLatch consuming = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final List<List<String>> written = Collections.synchronizedList(new ArrayList<>());
+        final StatementWriter slowWriter = lines -> {
+            consuming.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(lines);
+        };
+
+        try (RingBufferStatementWriter statementWriter = new RingBufferStatementWriter(slowWriter, 16, 3, WaitStrategy.PARKING, OverflowPolicy.DROP)) {
+            try {
+                statementWriter.write(Stream.of("1", "2"));
+                consuming.await();
+                statementWriter.write(Stream.of("3", "4"));
+                statementWriter.write(Stream.of("5"));
+
+                assertEquals(1, statementWriter.droppedStatements());
+                assertEquals(3, statementWriter.pendingLines());
+            } finally {
+                release.countDown();
+            }
+            statementWriter.flush();
+            assertEquals(List.of(List.of("1", "2"), List.of("5")), written);
+            assertEquals(0, statementWriter.pendingLines());
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a pending lines bound that is not positive")
+    void shouldRejectInvalidPendingLines() {
+        assertThrows(IllegalArgumentException.class, () -> new RingBufferStatementWriter(List::size, 16, 0, WaitStrategy.PARKING, OverflowPolicy.BLOCK));
+    }
+
+    @Test
+    @DisplayName("should fail blocked producers instead of spinning forever once the consumer died")
+    void shouldFailProducersWhenConsumerDies() throws Exception {
+        try (RingBufferStatementWriter statementWriter = new RingBufferStatementWriter(lines -> {
+            throw new AssertionError("Simulated error.");
+        }, 2, WaitStrategy.PARKING, OverflowPolicy.BLOCK)) {
+            final IllegalStateException failure = assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThrows(IllegalStateException.class, () -> {
+                while (true) {
+                    statementWriter.write(List.of("line"));
+                }
+            }));
+
+            assertInstanceOf(AssertionError.class, failure.getCause());
+            assertThrows(IllegalStateException.class, statementWriter::flush);
+        }
+    }
+
+    @Test
+    @DisplayName("should drain pending statements and close the target on close")
+    void shouldDrainOnClose() throws Exception {
+        final List<List<String>> written = Collections.synchronizedList(new ArrayList<>());
+        final AtomicBoolean targetClosed = new AtomicBoolean();
+        final RingBufferStatementWriter statementWriter = new RingBufferStatementWriter(new ClosableWriter(written, targetClosed));
+
+        for (int statement = 0; statement < 100; statement++) {
+            statementWriter.write(List.of("statement " + statement));
+        }
+        statementWriter.close();
+
+        assertEquals(100, written.size());
+        assertTrue(targetClosed.get());
+        assertThrows(IllegalStateException.class, () -> statementWriter.write(List.of("late")));
+    }
+
+    @Test
+    @DisplayName("should count the statements the target failed to write and keep consuming")
+    void shouldCountFailedStatements() throws Exception {
+        final List<List<String>> written = Collections.synchronizedList(new ArrayList<>());
+
+        try (RingBufferStatementWriter statementWriter = new RingBufferStatementWriter(lines -> {
+            if (lines.get(0).equals("broken"))
+                throw new IllegalStateException("Target unavailable.");
+            written.add(lines);
+        })) {
+            statementWriter.write(List.of("broken"));
+            statementWriter.write(List.of("valid"));
+            statementWriter.flush();
+
+            assertEquals(1, statementWriter.failedStatements());
+            assertEquals(List.of(List.of("valid")), written);
+        }
+    }
+
+    private record ClosableWriter(List<List<String>> written, AtomicBoolean closed) implements StatementWriter, Closeable {
+
+        @Override
+        public void write(List<String> statementDetails) {
+            written.add(statementDetails);
+        }
+
+        @Override
+        public void close() {
+            closed.set(true);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package org.squiot.bank.writer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatementLinesCacheTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 10, 5, 14, 30, 15);
+
+    private final TableStatementFormatter tableStatementFormatter = new TableStatementFormatter();
+
+    @Test
+    @DisplayName("should render the same statement as the table formatter")
+    void shouldRenderLikeTableFormatter() {
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(1000);
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = history(accountId, 3);
+
+        assertEquals(tableStatementFormatter.formatStatement(new AccountStatement(accountId, DATE, List.of(), Amount.ZERO)),
+                statementLinesCache.formatStatement(tableStatementFormatter, accountId, DATE, fromIndex -> List.of()));
+        assertEquals(tableStatementFormatter.formatStatement(new AccountStatement(accountId, DATE, operations, Amount.of(6))),
+                statementLinesCache.formatStatement(tableStatementFormatter, accountId, DATE, fromIndex -> operations.subList(fromIndex, operations.size())));
+    }
+
+    @Test
+    @DisplayName("should only fetch and render the operations created since the last statement")
+    void shouldRenderNewOperationsOnly() {
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(1000);
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = new ArrayList<>(history(accountId, 5));
+        final List<Integer> requestedIndexes = new ArrayList<>();
+
+        statementLinesCache.formatStatement(tableStatementFormatter, accountId, DATE, fromIndex -> {
+            requestedIndexes.add(fromIndex);
+            return List.copyOf(operations.subList(fromIndex, operations.size()));
+        });
+        operations.add(new Operation(OperationType.WITHDRAWAL, accountId, Amount.of(5), DATE, Amount.of(10)));
+        final List<String> lines = statementLinesCache.formatStatement(tableStatementFormatter, accountId, DATE.plusDays(1), fromIndex -> {
+            requestedIndexes.add(fromIndex);
+            return List.copyOf(operations.subList(fromIndex, operations.size()));
+        });
+
+        assertEquals(List.of(0, 5), requestedIndexes);
+        assertEquals(tableStatementFormatter.formatStatement(new AccountStatement(accountId, DATE.plusDays(1), operations, Amount.of(10))), lines);
+        assertEquals(1, statementLinesCache.hits());
+        assertEquals(1, statementLinesCache.misses());
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used accounts beyond the cached lines bound")
+    void shouldEvictLeastRecentlyUsedAccounts() {
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(10);
+        final UUID firstAccountId = UUID.randomUUID();
+        final UUID secondAccountId = UUID.randomUUID();
+        final UUID thirdAccountId = UUID.randomUUID();
+
+        statementLinesCache.formatStatement(tableStatementFormatter, firstAccountId, DATE, fromIndex -> history(firstAccountId, 4).subList(fromIndex, 4));
+        statementLinesCache.formatStatement(tableStatementFormatter, secondAccountId, DATE, fromIndex -> history(secondAccountId, 4).subList(fromIndex, 4));
+        statementLinesCache.formatStatement(tableStatementFormatter, firstAccountId, DATE, fromIndex -> history(firstAccountId, 4).subList(fromIndex, 4));
+        statementLinesCache.formatStatement(tableStatementFormatter, thirdAccountId, DATE, fromIndex -> history(thirdAccountId, 4).subList(fromIndex, 4));
+
+        assertEquals(1, statementLinesCache.evictions());
+        assertEquals(2, statementLinesCache.cachedAccounts());
+        assertEquals(8, statementLinesCache.cachedLines());
+
+        final List<Integer> requestedIndexes = new ArrayList<>();
+        statementLinesCache.formatStatement(tableStatementFormatter, firstAccountId, DATE, fromIndex -> {
+            requestedIndexes.add(fromIndex);
+            return List.of();
+        });
+        assertEquals(List.of(4), requestedIndexes);
+    }
+
+    @Test
+    @DisplayName("should not keep an account larger than the cached lines bound")
+    void shouldNotCacheOversizedAccounts() {
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(3);
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = history(accountId, 4);
+
+        final List<String> lines = statementLinesCache.formatStatement(tableStatementFormatter, accountId, DATE, fromIndex -> operations.subList(fromIndex, 4));
+
+        assertEquals(tableStatementFormatter.formatStatement(new AccountStatement(accountId, DATE, operations, Amount.of(10))), lines);
+        assertEquals(0, statementLinesCache.cachedAccounts());
+        assertEquals(0, statementLinesCache.cachedLines());
+    }
+
+    @Test
+    @DisplayName("should render the lines again for another formatter")
+    void shouldRenderAgainForAnotherFormatter() {
+        final StatementLinesCache statementLinesCache = new StatementLinesCache(1000);
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = history(accountId, 2);
+        final List<Integer> requestedIndexes = new ArrayList<>();
+        final TableStatementFormatter otherFormatter = new TableStatementFormatter();
+
+        statementLinesCache.formatStatement(tableStatementFormatter, accountId, DATE, fromIndex -> {
+            requestedIndexes.add(fromIndex);
+            return operations.subList(fromIndex, 2);
+        });
+        statementLinesCache.formatStatement(otherFormatter, accountId, DATE, fromIndex -> {
+            requestedIndexes.add(fromIndex);
+            return operations.subList(fromIndex, 2);
+        });
+
+        assertEquals(List.of(0, 0), requestedIndexes);
+        assertEquals(2, statementLinesCache.cachedLines());
+        assertEquals(2, statementLinesCache.misses());
+    }
+
+    private static List<Operation> history(UUID accountId, int size) {
+        final List<Operation> operations = new ArrayList<>();
+        for (int i = 1; i <= size; i++) {
+            operations.add(new Operation(OperationType.DEPOSIT, accountId, Amount.of(i), DATE.minusDays(size - i), Amount.of((long) i * (i + 1) / 2)));
+        }
+        return operations;
+    }
+}
@@ -0,0 +1,83 @@
+package org.squiot.bank.writer;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.PeriodRollup;
+import org.squiot.bank.account.RollupPeriod;
+import org.squiot.bank.account.SummaryStatement;
+import org.squiot.bank.amount.Amount;
+import org.squiot.bank.operation.Operation;
+import org.squiot.bank.operation.OperationType;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SummaryStatementFormatterTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2022, 11, 5, 14, 30, 15);
+
+    private final SummaryStatementFormatter summaryStatementFormatter = new SummaryStatementFormatter(RollupPeriod.MONTH);
+
+    @Test
+    @DisplayName("should render one line per period rollup")
+    void shouldFormatSummaryStatement() {
+        final UUID accountId = UUID.fromString("1b8a1f5e-5c1f-4b7e-9a50-2f3d2c1e0a11");
+        final SummaryStatement summaryStatement = new SummaryStatement(accountId, DATE, RollupPeriod.MONTH, List.of(
+                new PeriodRollup(LocalDate.of(2022, 10, 1), 3, Amount.of(150), Amount.of(30), Amount.ZERO, Amount.of(120))
+        ), Amount.of(120));
+
+        final List<String> lines = summaryStatementFormatter.formatStatement(summaryStatement);
+
+        assertEquals(11, lines.size());
+        assertEquals("SUMMARY STATEMENT", lines.get(1).substring(1, 161).trim());
+        assertEquals("PERIOD : MONTH", lines.get(4).substring(1, 161).trim());
+        assertEquals("BALANCE : 120.00", lines.get(5).substring(1, 161).trim());
+        assertEquals("|" + String.format("%-32s%-32s%-32s%-32s%-32s", "PERIOD", "CREDITS", "DEBITS", "OPENING BALANCE", "CLOSING BALANCE") + "|", lines.get(7));
+        assertEquals("|" + String.format("%-32s%-32s%-32s%-32s%-32s", "2022-10", "150.00", "30.00", "0.00", "120.00") + "|", lines.get(9));
+        lines.forEach(line -> assertEquals(162, line.length()));
+    }
+
+    @Test
+    @DisplayName("should roll up the operations of a regular statement")
+    void shouldRollUpAccountStatement() {
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(
+                new Operation(OperationType.DEPOSIT, accountId, Amount.of(100), LocalDateTime.of(2022, 10, 5, 9, 0), Amount.of(100)),
+                new Operation(OperationType.WITHDRAWAL, accountId, Amount.of(30), LocalDateTime.of(2022, 10, 6, 9, 0), Amount.of(70))
+        );
+
+        final List<String> lines = summaryStatementFormatter.formatStatement(new AccountStatement(accountId, DATE, operations, Amount.of(70)));
+
+        assertEquals(summaryStatementFormatter.formatStatement(new SummaryStatement(accountId, DATE, RollupPeriod.MONTH, List.of(
+                new PeriodRollup(LocalDate.of(2022, 10, 1), 2, Amount.of(100), Amount.of(30), Amount.ZERO, Amount.of(70))
+        ), Amount.of(70))), lines);
+    }
+
+    @Test
+    @DisplayName("should count transfers in the credits and debits columns")
+    void shouldCountTransfersAsCreditsAndDebits() {
+        final UUID accountId = UUID.randomUUID();
+        final List<Operation> operations = List.of(
+                new Operation(OperationType.DEPOSIT, accountId, Amount.of(100), LocalDateTime.of(2022, 10, 5, 9, 0), Amount.of(100)),
+                new Operation(OperationType.TRANSFER_IN, accountId, Amount.of(50), LocalDateTime.of(2022, 10, 6, 9, 0), Amount.of(150)),
+                new Operation(OperationType.TRANSFER_OUT, accountId, Amount.of(20), LocalDateTime.of(2022, 10, 7, 9, 0), Amount.of(130))
+        );
+
+        final List<String> lines = summaryStatementFormatter.formatStatement(new AccountStatement(accountId, DATE, operations, Amount.of(130)));
+
+        assertEquals("|" + String.format("%-32s%-32s%-32s%-32s%-32s", "2022-10", "150.00", "20.00", "0.00", "130.00") + "|", lines.get(9));
+    }
+
+    @Test
+    @DisplayName("should render an empty summary")
+    void shouldFormatEmptySummary() {
+        final List<String> lines = summaryStatementFormatter.formatStatement(new SummaryStatement(UUID.randomUUID(), DATE, RollupPeriod.DAY, List.of(), Amount.ZERO));
+
+        assertEquals("-- NO OPERATIONS --", lines.get(9).substring(1, 161).trim());
+    }
+}
@@ -2,17 +2,19 @@ package org.squiot.bank.writer;
 
 import org.junit.jupiter.api.Test;
 import org.squiot.bank.account.AccountStatement;
+import org.squiot.bank.account.StatementPeriod;
+import org.squiot.bank.account.StreamedAccountStatement;
+import org.squiot.bank.amount.Amount;
 import org.squiot.bank.exception.NegativeAmountException;
 import org.squiot.bank.operation.Operation;
 import org.squiot.bank.operation.OperationType;
 
-import java.math.BigDecimal;
-import java.math.RoundingMode;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 
@@ -26,16 +28,16 @@ class TableStatementFormatterTest {
                 new Operation(
                         OperationType.WITHDRAWAL,
                         accountId,
-                        BigDecimal.valueOf(100).setScale(2,RoundingMode.HALF_EVEN),
+                        Amount.of(100),
                         LocalDateTime.of(2022,10,27,10,47,50),
-                        BigDecimal.valueOf(250).setScale(2, RoundingMode.HALF_EVEN)
+                        Amount.of(250)
                 ),
                 new Operation(
                         OperationType.DEPOSIT,
                         accountId,
-                        BigDecimal.valueOf(350).setScale(2,RoundingMode.HALF_EVEN),
+                        Amount.of(350),
                         LocalDateTime.of(2022,10,27,10,47,29),
-                        BigDecimal.valueOf(350).setScale(2, RoundingMode.HALF_EVEN)
+                        Amount.of(350)
                 )
         );
 
@@ -65,7 +67,7 @@ class TableStatementFormatterTest {
     void shouldReturnAccountStatementInformationsWithoutOperation() {
         final var accountId = UUID.randomUUID();
         final var now = LocalDateTime.now();
-        final var accountStatement = new AccountStatement(accountId,now, Collections.emptyList(),BigDecimal.ZERO);
+        final var accountStatement = new AccountStatement(accountId,now, Collections.emptyList(),Amount.ZERO);
 
         final var expectedFormattedResult = List.of(
                 "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*",
@@ -74,7 +76,7 @@ class TableStatementFormatterTest {
                         .formatted(now.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))),
                 "|                                                       ACCOUNT ID : %s                                                        |"
                         .formatted(accountId) ,
-                "|                                                                          BALANCE : 0                                                                           |",
+                "|                                                                         BALANCE : 0.00                                                                         |",
                 "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*",
                 "|OPERATION                               DATE                                    AMOUNT                                  BALANCE                                 |",
                 "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*",
@@ -86,4 +88,61 @@ class TableStatementFormatterTest {
         assertEquals(expectedFormattedResult,formattedStatement);
     }
 
-}
\ No newline at end of file
+    @Test
+    void shouldStreamSameLinesAsListFormatting() {
+        final var accountId = UUID.randomUUID();
+        final var now = LocalDateTime.now();
+        final var operations = List.of(
+                new Operation(OperationType.DEPOSIT, accountId, Amount.of(350), LocalDateTime.of(2022,10,27,10,47,29), Amount.of(350)),
+                new Operation(OperationType.WITHDRAWAL, accountId, Amount.of(100), LocalDateTime.of(2022,10,27,10,47,50), Amount.of(250))
+        );
+        final var formatter = new TableStatementFormatter();
+
+        final var expectedFormattedResult = formatter.formatStatement(new AccountStatement(accountId, now, operations, Amount.of(250)));
+        final var streamedStatement = formatter.formatStatement(new StreamedAccountStatement(accountId, now, operations.stream(), Amount.of(250)));
+
+        assertEquals(expectedFormattedResult, streamedStatement.toList());
+    }
+
+    @Test
+    void shouldStreamAccountStatementWithoutOperation() {
+        final var accountId = UUID.randomUUID();
+        final var now = LocalDateTime.now();
+        final var formatter = new TableStatementFormatter();
+
+        final var expectedFormattedResult = formatter.formatStatement(new AccountStatement(accountId, now, Collections.emptyList(), Amount.ZERO));
+        final var streamedStatement = formatter.formatStatement(new StreamedAccountStatement(accountId, now, Stream.empty(), Amount.ZERO));
+
+        assertEquals(expectedFormattedResult, streamedStatement.toList());
+    }
+
+    @Test
+    void shouldReturnPeriodStatementWithOpeningBalance() {
+        final var accountId = UUID.fromString("6f1c2c1e-2b9e-4c1a-9f55-3d2f0b6a8e11");
+        final var now = LocalDateTime.of(2022, 11, 2, 8, 30, 0);
+        final var operations = List.of(
+                new Operation(OperationType.DEPOSIT, accountId, Amount.of(100), LocalDateTime.of(2022,10,5,9,0,0), Amount.of(300))
+        );
+        final var period = new StatementPeriod(LocalDateTime.of(2022, 10, 1, 0, 0), LocalDateTime.of(2022, 11, 1, 0, 0), Amount.of(200));
+        final var accountStatement = new AccountStatement(accountId, now, operations, Amount.of(300), period);
+
+        final var expectedFormattedResult = List.of(
+                "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*",
+                "|                                                                       ACCOUNT STATEMENT                                                                        |",
+                "|                                                                    AT : 2022-11-02 08:30:00                                                                    |",
+                "|                                                      FROM : 2022-10-01 00:00:00 TO : 2022-11-01 00:00:00                                                       |",
+                "|                                                       ACCOUNT ID : 6f1c2c1e-2b9e-4c1a-9f55-3d2f0b6a8e11                                                        |",
+                "|                                                                    OPENING BALANCE : 200.00                                                                    |",
+                "|                                                                        BALANCE : 300.00                                                                        |",
+                "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*",
+                "|OPERATION                               DATE                                    AMOUNT                                  BALANCE                                 |",
+                "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*",
+                "|DEPOSIT                                 2022-10-05 09:00:00                     100.00                                  300.00                                  |",
+                "*----------------------------------------------------------------------------------------------------------------------------------------------------------------*"
+        );
+
+        final var formattedStatement = new TableStatementFormatter().formatStatement(accountStatement);
+        assertEquals(expectedFormattedResult,formattedStatement);
+    }
+
+}